@@ -18,7 +18,16 @@ PLOT_GPL="`readlink -f plot.gpl`"
 
 mkdir -p "$PLOTS_DIR"
 
+# Use the results aggregated by the experiment runner where available, and
+# aggregate raw results otherwise
+for f in "$RESULTS_DIR"/*.agg; do
+	[ -e "$f" ] || continue
+	cp "$f" "$PLOTS_DIR"/`basename "$f" .agg`.dat
+done
+
 for f in "$RESULTS_DIR"/*.dat; do
+	[ -e "$f" ] || continue
+	[ -e "${f%.dat}.agg" ] && continue
 	./aggregate.py "$f" "$PLOTS_DIR"/`basename "$f"`
 done
 
@@ -0,0 +1,12 @@
+#!/bin/bash
+
+# Runs the JMH microbenchmarks. All arguments are passed to the JMH runner, e.g.,
+#   ./perform-benchmarks.sh KVLearningBenchmark -prof gc
+#   ./perform-benchmarks.sh AnalyzerBenchmark -p length=1000,1000000 -p pattern=single -prof gc
+# Unless specified otherwise (e.g., -p analyzer=RivestSchapire,KAry-4), all analyzers
+# registered in Analyzers are benchmarked.
+
+pushd .
+cd ..
+mvn clean compile && mvn exec:exec -Dexec.executable="java" -Dexec.args="-cp %classpath de.learnlib.abstractcounterexamples.benchmarks.BenchmarkMain $*"
+popd
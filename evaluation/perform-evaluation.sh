@@ -20,24 +20,18 @@ if [ -z "$EXPERIMENT_ID" ]; then
 fi
 
 
-export MIN_CE_LENGTH MAX_CE_LENGTH CE_LENGTH_STEP NUM_INSTANCES REPEAT_COUNT EXPERIMENT_ID NUM_STATES ALPHABET_SIZE REDUCE_COUNTEREXAMPLES RANDOM_SEED NUM_THREADS
+export MIN_CE_LENGTH MAX_CE_LENGTH CE_LENGTH_STEP NUM_INSTANCES REPEAT_COUNT EXPERIMENT_ID NUM_STATES ALPHABET_SIZE REDUCE_COUNTEREXAMPLES COMMON_RANDOM_NUMBERS ANALYZERS RANDOM_SEED NUM_THREADS
 
 pushd .
 cd ..
 export LC_ALL=C
-mvn clean compile && mvn exec:java -Dexec.mainClass="de.learnlib.abstractcounterexamples.experiments.icgi2014.ExperimentMain"
+mvn clean compile && mvn exec:java -Dexec.mainClass="de.learnlib.abstractcounterexamples.experiments.icgi2014.ExperimentMain" \
+	&& mvn exec:java -Dexec.mainClass="de.learnlib.abstractcounterexamples.experiments.icgi2014.ResultConverter" -Dexec.args="results/$EXPERIMENT_ID"
 popd
 
-TMP_DIR=".results-tmp-$EXPERIMENT_ID"
-mkdir -p "$TMP_DIR"
-for f in `find ../results/"$EXPERIMENT_ID" -name '*.dat'`; do
-	cat "$f" >>"$TMP_DIR"/`basename "$f"`
-done
-
 PLOTS_DIR="./plots/$EXPERIMENT_ID"
 
 mkdir -p "$PLOTS_DIR"
 
-./create-plots.sh "$TMP_DIR" "$PLOTS_DIR"
-
-rm -rf "$TMP_DIR"
+# The experiment runner aggregates the results of all instances
+./create-plots.sh ../results/"$EXPERIMENT_ID" "$PLOTS_DIR"
@@ -7,24 +7,40 @@ import java.util.Arrays;
 
 /**
  * Base class for abstract counterexamples.
+ * <p>
+ * Effect values are memoized, so every effect is computed at most once. By default,
+ * an abstract counterexample must not be accessed by several threads concurrently.
+ * If it is created as a thread-safe abstract counterexample, concurrent callers
+ * requesting an effect value that is currently being computed wait for this
+ * computation to finish, instead of computing it again.
  * 
  * @author Malte Isberner
  *
  */
 public abstract class AbstractCounterexample {
 	
-	private final int[] values;
-	private int numQueries = 0;
+	private final int length;
+	private final EffectMemo memo;
+	private final boolean threadSafe;
 	
 	/**
 	 * Constructor.
 	 * @param m length of the counterexample
 	 */
 	public AbstractCounterexample(int m) {
-		this.values = new int[m + 1];
-		Arrays.fill(values, -1);
-		values[0] = 0;
-		values[m] = 1;
+		this(m, false);
+	}
+	
+	/**
+	 * Constructor.
+	 * @param m length of the counterexample
+	 * @param threadSafe whether or not the abstract counterexample may be accessed
+	 * by several threads concurrently
+	 */
+	public AbstractCounterexample(int m, boolean threadSafe) {
+		this.length = m;
+		this.memo = threadSafe ? new ConcurrentEffectMemo(m) : new SparseEffectMemo(m);
+		this.threadSafe = threadSafe;
 	}
 	
 	/**
@@ -32,7 +48,17 @@ public abstract class AbstractCounterexample {
 	 * @return the length of the counterexample
 	 */
 	public int getLength() {
-		return values.length - 1;
+		return length;
+	}
+	
+	/**
+	 * Checks whether this abstract counterexample may be accessed by several
+	 * threads concurrently.
+	 * @return {@code true} if this abstract counterexample is thread-safe,
+	 * {@code false} otherwise
+	 */
+	public boolean isThreadSafe() {
+		return threadSafe;
 	}
 	
 	/**
@@ -47,14 +73,84 @@ public abstract class AbstractCounterexample {
 	 * to agree, 0 otherwise.
 	 */
 	public int testEffect(int index) {
-		if(index < 0 || index >= values.length) {
+		if(index < 0 || index > length) {
 			throw new IndexOutOfBoundsException("" + index);
 		}
 		
-		if(values[index] == -1) {
-			values[index] = computeEffect(index);
+		int val;
+		while((val = memo.claim(index)) == EffectMemo.IN_FLIGHT) {
+			memo.await(index);
 		}
-		return values[index];
+		
+		if(val == EffectMemo.UNKNOWN) {
+			try {
+				val = computeEffect(index);
+			}
+			catch(RuntimeException | Error ex) {
+				memo.release(index);
+				throw ex;
+			}
+			memo.publish(index, val);
+		}
+		return val;
+	}
+	
+	/**
+	 * Tests the effects of performing prefix transformations for several
+	 * indices at once. The result is the same as calling {@link #testEffect(int)}
+	 * for every index, but all effects that are not known yet are computed
+	 * in a single batch (see {@link #doComputeEffects(int[], int[])}). This allows
+	 * implementations to pose all required queries at once, instead of one by one.
+	 * 
+	 * @param indices the indices for the prefix transformations
+	 * @return an array containing the effect values for the respective indices
+	 */
+	public int[] testEffects(int... indices) {
+		int[] result = new int[indices.length];
+		int[] pending = new int[indices.length];
+		int numPending = 0;
+		
+		for(int i = 0; i < indices.length; i++) {
+			int index = indices[i];
+			if(index < 0 || index > length) {
+				throw new IndexOutOfBoundsException("" + index);
+			}
+			// Claiming an index marks it as in-flight, so that duplicate indices
+			// are only computed once
+			int val = memo.claim(index);
+			if(val == EffectMemo.UNKNOWN) {
+				pending[numPending++] = index;
+			}
+			result[i] = val;
+		}
+		
+		if(numPending > 0) {
+			if(numPending < pending.length) {
+				pending = Arrays.copyOf(pending, numPending);
+			}
+			int[] effects = new int[numPending];
+			try {
+				computeEffects(pending, effects);
+			}
+			catch(RuntimeException | Error ex) {
+				for(int index : pending) {
+					memo.release(index);
+				}
+				throw ex;
+			}
+			for(int i = 0; i < numPending; i++) {
+				memo.publish(pending[i], effects[i]);
+			}
+		}
+		
+		// Collect the values computed by us or (concurrently) by others
+		for(int i = 0; i < indices.length; i++) {
+			if(result[i] < 0) {
+				int val = memo.await(indices[i]);
+				result[i] = (val < 0) ? testEffect(indices[i]) : val;
+			}
+		}
+		return result;
 	}
 	
 	/**
@@ -68,28 +164,76 @@ public abstract class AbstractCounterexample {
 	 * @return the sum of adjacent prefix transformation effect values
 	 */
 	public int testCombinedEffect(int index) {
-		if(index < 0 || index >= values.length - 1) {
+		if(index < 0 || index >= length) {
 			throw new IndexOutOfBoundsException("" + index);
 		}
 		
 		return testEffect(index) + testEffect(index+1);
 	}
 	
+	/**
+	 * Retrieves the effect values that are known, including the boundaries. The
+	 * effect value <code>e</code> for index <code>i</code> is encoded as
+	 * <code>2 * i + e</code>. Unless this abstract counterexample is thread-safe, the
+	 * cost is proportional to the number of known effect values (up to a logarithmic
+	 * factor), and not to the length of the counterexample.
+	 * 
+	 * @return the encoded known effect values, in ascending order of their indices
+	 */
+	protected int[] getKnownEffects() {
+		return memo.getKnownEffects();
+	}
+	
+	/**
+	 * Invalidates the memoized effect value for an index, e.g., because the
+	 * underlying hypothesis has changed such that the effect value might be different.
+	 * The next request for this index will compute the effect value again. This
+	 * method must not be called while the abstract counterexample is being analyzed.
+	 * 
+	 * @param index the index
+	 */
+	protected void invalidateEffect(int index) {
+		memo.invalidate(index);
+	}
+	
 	/**
 	 * Computes the effect of a prefix transformation.
 	 */
 	protected int computeEffect(int index) {
-		numQueries++;
+		memo.addQueries(1);
 		return doComputeEffect(index);
 	}
 	
+	/**
+	 * Computes the effects of several prefix transformations.
+	 */
+	protected void computeEffects(int[] indices, int[] effects) {
+		memo.addQueries(indices.length);
+		doComputeEffects(indices, effects);
+	}
+	
 	/**
 	 * Retrieves the number of queries (i.e., invokations of
 	 * {@link #testEffect(int)} that were made.
 	 * @return the number of queries that were made
 	 */
 	public int getNumQueries() {
-		return numQueries;
+		return memo.getNumQueries();
+	}
+	
+	/**
+	 * Estimates the cost of computing the effect for the given index, e.g., the
+	 * length of the query that has to be posed. Analyzers may use this to prefer
+	 * cheaper indices. The default implementation assigns the same cost 1 to every
+	 * index, i.e., the cost of an analysis is the number of queries.
+	 * <p>
+	 * Estimating the cost must not require any queries.
+	 * 
+	 * @param index the index for the prefix transformation
+	 * @return the estimated cost
+	 */
+	public long estimateCost(int index) {
+		return 1L;
 	}
 	
 	/**
@@ -97,4 +241,19 @@ public abstract class AbstractCounterexample {
 	 * and computing its effect.
 	 */
 	protected abstract int doComputeEffect(int index);
+	
+	/**
+	 * This method is responsible for performing several prefix transformations, and
+	 * computing their effects. The effect for <code>indices[i]</code> has to be stored
+	 * in <code>effects[i]</code>.
+	 * <p>
+	 * The default implementation calls {@link #doComputeEffect(int)} for each index.
+	 * Subclasses should override this method if they can compute several effects
+	 * more efficiently at once, e.g., by posing all queries in a single batch.
+	 */
+	protected void doComputeEffects(int[] indices, int[] effects) {
+		for(int i = 0; i < indices.length; i++) {
+			effects[i] = doComputeEffect(indices[i]);
+		}
+	}
 }
@@ -0,0 +1,190 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Thread-safe effect memo. The state of every index is packed into two bits of an
+ * {@link AtomicIntegerArray}, and is updated using compare-and-set operations only.
+ * If an effect value is currently being computed, other threads requesting it
+ * will wait for the computation to finish instead of computing it again. Blocking
+ * only takes place in this case.
+ */
+final class ConcurrentEffectMemo extends EffectMemo {
+
+	private static final int BITS_PER_ENTRY = 2;
+	private static final int ENTRIES_PER_WORD = Integer.SIZE / BITS_PER_ENTRY;
+	private static final int ENTRY_MASK = (1 << BITS_PER_ENTRY) - 1;
+
+	private static final int STATE_UNKNOWN = 0;
+	private static final int STATE_IN_FLIGHT = 1;
+	private static final int STATE_ZERO = 2;
+	private static final int STATE_ONE = 3;
+
+	private final int length;
+	private final AtomicIntegerArray states;
+	private final AtomicInteger numQueries = new AtomicInteger();
+	private final AtomicInteger numWaiters = new AtomicInteger();
+
+	/**
+	 * Constructor.
+	 * @param m length of the counterexample
+	 */
+	public ConcurrentEffectMemo(int m) {
+		this.length = m;
+		this.states = new AtomicIntegerArray(m / ENTRIES_PER_WORD + 1);
+		setState(0, STATE_ZERO);
+		setState(m, STATE_ONE);
+	}
+
+	private static int shift(int index) {
+		return (index % ENTRIES_PER_WORD) * BITS_PER_ENTRY;
+	}
+
+	private int getState(int index) {
+		return (states.get(index / ENTRIES_PER_WORD) >>> shift(index)) & ENTRY_MASK;
+	}
+
+	private void setState(int index, int state) {
+		compareAndSetState(index, getState(index), state);
+	}
+
+	private boolean compareAndSetState(int index, int expect, int update) {
+		int wordIdx = index / ENTRIES_PER_WORD;
+		int shift = shift(index);
+		int clearMask = ~(ENTRY_MASK << shift);
+		int word;
+		do {
+			word = states.get(wordIdx);
+			if(((word >>> shift) & ENTRY_MASK) != expect) {
+				return false;
+			}
+		} while(!states.compareAndSet(wordIdx, word, (word & clearMask) | (update << shift)));
+		return true;
+	}
+
+	private static int toValue(int state) {
+		switch(state) {
+		case STATE_ZERO:
+			return 0;
+		case STATE_ONE:
+			return 1;
+		case STATE_IN_FLIGHT:
+			return IN_FLIGHT;
+		default:
+			return UNKNOWN;
+		}
+	}
+
+	@Override
+	public int claim(int index) {
+		int state;
+		do {
+			state = getState(index);
+			if(state != STATE_UNKNOWN) {
+				return toValue(state);
+			}
+		} while(!compareAndSetState(index, STATE_UNKNOWN, STATE_IN_FLIGHT));
+		return UNKNOWN;
+	}
+
+	@Override
+	public int await(int index) {
+		int state = getState(index);
+		if(state != STATE_IN_FLIGHT) {
+			return toValue(state);
+		}
+		numWaiters.incrementAndGet();
+		try {
+			synchronized(this) {
+				while((state = getState(index)) == STATE_IN_FLIGHT) {
+					wait();
+				}
+			}
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for effect value", ex);
+		}
+		finally {
+			numWaiters.decrementAndGet();
+		}
+		return toValue(state);
+	}
+
+	@Override
+	public void publish(int index, int value) {
+		compareAndSetState(index, STATE_IN_FLIGHT, (value == 0) ? STATE_ZERO : STATE_ONE);
+		wakeWaiters();
+	}
+
+	@Override
+	public void release(int index) {
+		compareAndSetState(index, STATE_IN_FLIGHT, STATE_UNKNOWN);
+		wakeWaiters();
+	}
+
+	private void wakeWaiters() {
+		if(numWaiters.get() > 0) {
+			synchronized(this) {
+				notifyAll();
+			}
+		}
+	}
+
+	@Override
+	public void invalidate(int index) {
+		if(index == 0 || index == length) {
+			return;
+		}
+		if(!compareAndSetState(index, STATE_ZERO, STATE_UNKNOWN)) {
+			compareAndSetState(index, STATE_ONE, STATE_UNKNOWN);
+		}
+	}
+
+	@Override
+	public int[] getKnownEffects() {
+		// Take a snapshot first, such that the result is consistent even if effect
+		// values are published concurrently. Words whose entries are all unknown are
+		// skipped quickly
+		int numWords = states.length();
+		int[] words = new int[numWords];
+		int num = 0;
+		for(int w = 0; w < numWords; w++) {
+			int word = states.get(w);
+			words[w] = word;
+			if(word != 0) {
+				// An entry is known iff its higher bit is set
+				num += Integer.bitCount(word & 0xAAAAAAAA);
+			}
+		}
+
+		int[] effects = new int[num];
+		int i = 0;
+		for(int w = 0; w < numWords; w++) {
+			int known = words[w] & 0xAAAAAAAA;
+			while(known != 0) {
+				int bit = Integer.numberOfTrailingZeros(known);
+				known &= known - 1;
+				int index = w * ENTRIES_PER_WORD + bit / BITS_PER_ENTRY;
+				// STATE_ZERO and STATE_ONE differ in the lower bit
+				effects[i++] = 2 * index + ((words[w] >>> (bit - 1)) & 1);
+			}
+		}
+		return effects;
+	}
+
+	@Override
+	public void addQueries(int num) {
+		numQueries.addAndGet(num);
+	}
+
+	@Override
+	public int getNumQueries() {
+		return numQueries.get();
+	}
+
+}
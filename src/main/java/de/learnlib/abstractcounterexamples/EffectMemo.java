@@ -0,0 +1,97 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples;
+
+/**
+ * Storage for the (memoized) effect values of an {@link AbstractCounterexample},
+ * along with the number of queries that were required for computing them.
+ * <p>
+ * Effect values are computed following a claim/publish protocol: a caller that wants
+ * to know the effect value for an index first {@link #claim(int) claims} it. If the
+ * value is not known yet, the caller becomes responsible for computing it, and has
+ * to either {@link #publish(int, int) publish} the computed value or
+ * {@link #release(int) release} the index if the computation failed.
+ */
+abstract class EffectMemo {
+
+	/**
+	 * Return value of {@link #claim(int)} signaling that the effect value is not known,
+	 * and that the caller now is responsible for computing it.
+	 */
+	public static final int UNKNOWN = -1;
+
+	/**
+	 * Return value of {@link #claim(int)} signaling that the effect value is currently
+	 * being computed.
+	 */
+	public static final int IN_FLIGHT = -2;
+
+	/**
+	 * Claims the given index. If the effect value for this index is known,
+	 * it is returned. Otherwise, if nobody is currently computing the effect value,
+	 * the index is marked as being computed and {@link #UNKNOWN} is returned. If
+	 * the effect value is currently being computed, {@link #IN_FLIGHT} is returned.
+	 *
+	 * @param index the index
+	 * @return the effect value, {@link #UNKNOWN} or {@link #IN_FLIGHT}
+	 */
+	public abstract int claim(int index);
+
+	/**
+	 * Waits until the effect value for the given index is no longer being computed.
+	 *
+	 * @param index the index
+	 * @return the effect value, or {@link #UNKNOWN} if the computation was abandoned
+	 */
+	public abstract int await(int index);
+
+	/**
+	 * Publishes the computed effect value for a claimed index.
+	 *
+	 * @param index the index
+	 * @param value the effect value, either 0 or 1
+	 */
+	public abstract void publish(int index, int value);
+
+	/**
+	 * Releases a claimed index without publishing an effect value, e.g., because
+	 * the computation failed.
+	 *
+	 * @param index the index
+	 */
+	public abstract void release(int index);
+
+	/**
+	 * Invalidates the effect value for the given index, i.e., forgets a published
+	 * effect value. This has no effect on the boundaries, and on indices whose effect
+	 * value is unknown or currently being computed.
+	 *
+	 * @param index the index
+	 */
+	public abstract void invalidate(int index);
+
+	/**
+	 * Retrieves the effect values that are known, i.e., have been published. This
+	 * includes the boundaries <code>0</code> and <code>m</code>, whose effect values
+	 * are always known. Every known effect value is encoded as
+	 * <code>2 * index + value</code>.
+	 *
+	 * @return the encoded known effect values, in ascending order of their indices
+	 */
+	public abstract int[] getKnownEffects();
+
+	/**
+	 * Adds to the number of queries.
+	 *
+	 * @param num the number of queries to add
+	 */
+	public abstract void addQueries(int num);
+
+	/**
+	 * Retrieves the number of queries.
+	 *
+	 * @return the number of queries
+	 */
+	public abstract int getNumQueries();
+}
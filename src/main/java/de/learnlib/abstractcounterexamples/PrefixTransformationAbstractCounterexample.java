@@ -1,12 +1,22 @@
 package de.learnlib.abstractcounterexamples;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import net.automatalib.automata.concepts.SuffixOutput;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.ts.simple.SimpleDTS;
 import net.automatalib.words.Word;
 
 import com.google.common.base.Objects;
 
 import de.learnlib.api.AccessSequenceTransformer;
 import de.learnlib.api.MembershipOracle;
+import de.learnlib.oracles.DefaultQuery;
 import de.learnlib.oracles.MQUtil;
 
 
@@ -14,6 +24,15 @@ import de.learnlib.oracles.MQUtil;
  * An abstract counterexample whose data is derived from prefix transformation.
  * While this is the only way of deriving abstract counterexamples discussed in the
  * paper, in principle other ways are possible, too.
+ * <p>
+ * If the hypothesis is a deterministic transition system, the sequence of hypothesis
+ * states along the counterexample is computed once upon construction. The access
+ * sequence for a prefix then only needs to be determined once per state, instead of
+ * transforming every prefix by running the hypothesis on it. Furthermore, if the
+ * hypothesis is a {@link DFA}, its output after any prefix transformation is known
+ * without simulating it: the access sequence of a prefix leads to the same state as
+ * the prefix itself, hence reading the remaining suffix leads to the same state as
+ * reading the whole counterexample.
  * 
  * @author Malte Isberner
  *
@@ -26,6 +45,10 @@ public class PrefixTransformationAbstractCounterexample<I, O> extends AbstractCo
 	private final MembershipOracle<I, O> oracle;
 	private final AccessSequenceTransformer<I> asTransformer;
 	private final SuffixOutput<I,O> hypothesis;
+	private final Object[] hypStates;
+	private final Map<Object,Word<I>> accessSequences;
+	private final O runOutput;
+	private final AtomicLong totalQuerySymbols = new AtomicLong(0L);
 
 	
 	public PrefixTransformationAbstractCounterexample(
@@ -33,30 +56,179 @@ public class PrefixTransformationAbstractCounterexample<I, O> extends AbstractCo
 			MembershipOracle<I, O> oracle,
 			AccessSequenceTransformer<I> asTransformer,
 			SuffixOutput<I, O> hypothesis) {
-		super(counterexample.length());
+		this(counterexample, oracle, asTransformer, hypothesis, false);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param counterexample the counterexample
+	 * @param oracle the membership oracle
+	 * @param asTransformer the access sequence transformer of the hypothesis
+	 * @param hypothesis the hypothesis
+	 * @param threadSafe whether or not the abstract counterexample may be accessed
+	 * by several threads concurrently. In this case, the oracle must be thread-safe
+	 * as well
+	 */
+	public PrefixTransformationAbstractCounterexample(
+			Word<I> counterexample,
+			MembershipOracle<I, O> oracle,
+			AccessSequenceTransformer<I> asTransformer,
+			SuffixOutput<I, O> hypothesis,
+			boolean threadSafe) {
+		super(counterexample.length(), threadSafe);
 		this.counterexample = counterexample;
 		this.oracle = oracle;
 		this.asTransformer = asTransformer;
 		this.hypothesis = hypothesis;
+		if(hypothesis instanceof SimpleDTS) {
+			@SuppressWarnings("unchecked")
+			SimpleDTS<?,I> hypDts = (SimpleDTS<?,I>)hypothesis;
+			this.hypStates = computeStates(hypDts, counterexample);
+			this.accessSequences = threadSafe
+					? new ConcurrentHashMap<Object,Word<I>>()
+					: new HashMap<Object,Word<I>>();
+			this.runOutput = computeRunOutput(hypothesis, hypStates[hypStates.length - 1]);
+		}
+		else {
+			this.hypStates = null;
+			this.accessSequences = null;
+			this.runOutput = null;
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <O> O computeRunOutput(SuffixOutput<?,O> hypothesis, Object finalState) {
+		if(finalState == null || !(hypothesis instanceof DFA)) {
+			return null;
+		}
+		return (O)Boolean.valueOf(isAccepting((DFA<?,?>)hypothesis, finalState));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <S> boolean isAccepting(DFA<S,?> dfa, Object state) {
+		return dfa.isAccepting((S)state);
+	}
+	
+	private static <S,I> Object[] computeStates(SimpleDTS<S,I> hypothesis, Word<I> word) {
+		Object[] states = new Object[word.length() + 1];
+		S curr = hypothesis.getInitialState();
+		int i = 0;
+		states[i++] = curr;
+		for(I sym : word) {
+			curr = hypothesis.getSuccessor(curr, sym);
+			states[i++] = curr;
+		}
+		return states;
+	}
+	
+	/**
+	 * Transforms the prefix of the given length of the counterexample into an access
+	 * sequence.
+	 * @param index the length of the prefix
+	 * @return the access sequence of the hypothesis state reached by the prefix
+	 */
+	private Word<I> transformPrefix(int index) {
+		Object state = (hypStates != null) ? hypStates[index] : null;
+		if(state == null) {
+			return asTransformer.transformAccessSequence(counterexample.prefix(index));
+		}
+		
+		Word<I> as = accessSequences.get(state);
+		if(as == null) {
+			as = asTransformer.transformAccessSequence(counterexample.prefix(index));
+			accessSequences.put(state, as);
+		}
+		return as;
+	}
+	
+	/**
+	 * Computes the output of the hypothesis for the given transformed prefix
+	 * and suffix.
+	 */
+	private O computeHypothesisOutput(Word<I> transformedPrefix, Word<I> suffix) {
+		if(runOutput != null) {
+			return runOutput;
+		}
+		return hypothesis.computeSuffixOutput(transformedPrefix, suffix);
 	}
 
 
+	/**
+	 * Estimates the cost of computing the effect for the given index as the length of
+	 * the query, i.e., the length of the access sequence of the prefix plus the length
+	 * of the remaining suffix.
+	 * <p>
+	 * This requires the state reached by the prefix to be known, i.e., the hypothesis
+	 * to be a deterministic transition system. The access sequence then needs to be
+	 * determined at most once per state. Otherwise, the prefix would have to be
+	 * transformed anew for every estimate, which costs as much as running the hypothesis
+	 * on it. In this case, the default cost of 1 is used instead (see
+	 * {@link AbstractCounterexample#estimateCost(int)}).
+	 */
+	@Override
+	public long estimateCost(int index) {
+		if(hypStates == null) {
+			return super.estimateCost(index);
+		}
+		return transformPrefix(index).length() + getLength() - index;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see de.learnlib.abstractcounterexamples.AbstractCounterexample#doComputeEffect(int)
 	 */
 	@Override
 	protected int doComputeEffect(int index) {
-		Word<I> prefix = counterexample.prefix(index);
 		Word<I> suffix = counterexample.subWord(index);
-		Word<I> transformedPrefix = asTransformer.transformAccessSequence(prefix);
+		Word<I> transformedPrefix = transformPrefix(index);
 		
-		O hypOut = hypothesis.computeSuffixOutput(transformedPrefix, suffix);
+		O hypOut = computeHypothesisOutput(transformedPrefix, suffix);
 		O oracleOut = MQUtil.output(oracle, transformedPrefix, suffix);
+		totalQuerySymbols.addAndGet(transformedPrefix.length() + suffix.length());
 		
 		return Objects.equal(hypOut, oracleOut) ? 1 : 0;
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see de.learnlib.abstractcounterexamples.AbstractCounterexample#doComputeEffects(int[], int[])
+	 */
+	@Override
+	protected void doComputeEffects(int[] indices, int[] effects) {
+		List<DefaultQuery<I,O>> queries = new ArrayList<>(indices.length);
+		List<O> hypOuts = new ArrayList<>(indices.length);
+		long querySymbols = 0L;
+		
+		for(int index : indices) {
+			Word<I> suffix = counterexample.subWord(index);
+			Word<I> transformedPrefix = transformPrefix(index);
+			
+			hypOuts.add(computeHypothesisOutput(transformedPrefix, suffix));
+			queries.add(new DefaultQuery<I,O>(transformedPrefix, suffix));
+			querySymbols += transformedPrefix.length() + suffix.length();
+		}
+		totalQuerySymbols.addAndGet(querySymbols);
+		
+		// Pose all queries in a single batch
+		oracle.processQueries(queries);
+		
+		for(int i = 0; i < indices.length; i++) {
+			O oracleOut = queries.get(i).getOutput();
+			effects[i] = Objects.equal(hypOuts.get(i), oracleOut) ? 1 : 0;
+		}
+	}
+	
+	/**
+	 * Retrieves the total number of symbols in the membership queries that were
+	 * posed, i.e., the sum of their lengths. This includes the queries posed on
+	 * behalf of a reduced counterexample (see {@link #reduce()}).
+	 * @return the total number of query symbols
+	 */
+	public long getTotalQuerySymbols() {
+		return totalQuerySymbols.get();
+	}
+	
 	/**
 	 * Reduces the counterexample, i.e., strips a maximal prefix that is an
 	 * access sequence off the counterexample.
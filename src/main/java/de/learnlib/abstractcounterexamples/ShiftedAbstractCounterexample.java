@@ -5,7 +5,8 @@ package de.learnlib.abstractcounterexamples;
 
 /**
  * An abstract counterexample derived from another abstract counterexample
- * by shifting the latter by a given offset.
+ * by shifting the latter by a given offset. The shifted abstract counterexample
+ * is thread-safe if and only if the original one is.
  * 
  * @author Malte Isberner
  *
@@ -21,15 +22,30 @@ public class ShiftedAbstractCounterexample extends AbstractCounterexample {
 	 * @param shiftAmt the shift amount
 	 */
 	public ShiftedAbstractCounterexample(AbstractCounterexample original, int shiftAmt) {
-		super(original.getLength() - shiftAmt);
+		super(original.getLength() - shiftAmt, original.isThreadSafe());
 		this.original = original;
 		this.shiftAmt = shiftAmt;
 	}
 
+	@Override
+	public long estimateCost(int index) {
+		return original.estimateCost(index + shiftAmt);
+	}
+
 	@Override
 	protected int doComputeEffect(int index) {
 		return original.testEffect(index + shiftAmt);
 	}
+	
+	@Override
+	protected void doComputeEffects(int[] indices, int[] effects) {
+		int[] origIndices = new int[indices.length];
+		for(int i = 0; i < indices.length; i++) {
+			origIndices[i] = indices[i] + shiftAmt;
+		}
+		int[] origEffects = original.testEffects(origIndices);
+		System.arraycopy(origEffects, 0, effects, 0, effects.length);
+	}
 
 	
 }
@@ -0,0 +1,109 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples;
+
+import gnu.trove.iterator.TIntByteIterator;
+import gnu.trove.map.TIntByteMap;
+import gnu.trove.map.hash.TIntByteHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Effect memo that only stores the effect values of indices that were actually
+ * requested, in a primitive hash map. The effect values at the boundaries are not
+ * stored at all. Hence, the memory required by this memo is proportional to the
+ * number of distinct indices that were requested, and not to the length of the
+ * counterexample (many analysis algorithms only consider a logarithmic number of
+ * indices). This memo is not thread-safe.
+ */
+final class SparseEffectMemo extends EffectMemo {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int length;
+	private final TIntByteMap values
+		= new TIntByteHashMap(INITIAL_CAPACITY, 0.5f, -1, (byte)UNKNOWN);
+	private int numQueries = 0;
+
+	/**
+	 * Constructor.
+	 * @param m length of the counterexample
+	 */
+	public SparseEffectMemo(int m) {
+		this.length = m;
+	}
+
+	private int get(int index) {
+		if(index == length) {
+			return 1;
+		}
+		if(index == 0) {
+			return 0;
+		}
+		return values.get(index);
+	}
+
+	@Override
+	public int claim(int index) {
+		int val = get(index);
+		if(val == UNKNOWN) {
+			values.put(index, (byte)IN_FLIGHT);
+		}
+		return val;
+	}
+
+	@Override
+	public int await(int index) {
+		int val = get(index);
+		if(val == IN_FLIGHT) {
+			// There is nobody else to wait for
+			throw new IllegalStateException("Effect value for index " + index + " is still being computed");
+		}
+		return val;
+	}
+
+	@Override
+	public void publish(int index, int value) {
+		values.put(index, (byte)value);
+	}
+
+	@Override
+	public void release(int index) {
+		values.remove(index);
+	}
+
+	@Override
+	public void invalidate(int index) {
+		if(values.get(index) >= 0) {
+			values.remove(index);
+		}
+	}
+
+	@Override
+	public int[] getKnownEffects() {
+		int[] effects = new int[values.size() + 2];
+		int num = 0;
+		effects[num++] = 0;
+		for(TIntByteIterator it = values.iterator(); it.hasNext();) {
+			it.advance();
+			if(it.value() >= 0) {
+				effects[num++] = 2 * it.key() + it.value();
+			}
+		}
+		effects[num++] = 2 * length + 1;
+		Arrays.sort(effects, 1, num - 1);
+		return (num < effects.length) ? Arrays.copyOf(effects, num) : effects;
+	}
+
+	@Override
+	public void addQueries(int num) {
+		numQueries += num;
+	}
+
+	@Override
+	public int getNumQueries() {
+		return numQueries;
+	}
+
+}
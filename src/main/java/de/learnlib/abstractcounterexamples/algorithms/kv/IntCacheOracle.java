@@ -0,0 +1,151 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.algorithms.kv;
+
+import java.util.Arrays;
+
+/**
+ * Caches the answers of an {@link IntMembershipOracle}, analogously to the DFA tree
+ * cache of LearnLib (see {@link de.learnlib.cache.dfa.DFACaches#createTreeCache}). Only
+ * queries whose answer is not known yet are passed to the delegate oracle, such that
+ * a {@link IntCounterOracle} behind this cache counts distinct queries only. As in the
+ * DFA tree cache, a batch of queries is looked up first, and the answers of the
+ * queries passed to the delegate are stored afterwards: if a word occurs several times
+ * in a batch and is not known, all of its occurrences are passed on.
+ * <p>
+ * The queried words are stored in a prefix tree over symbol indices, which requires
+ * memory proportional to the total length of the distinct queries. The prefix and
+ * suffix arrays are passed on to the delegate unchanged, such that an oracle relying on
+ * their identity (such as the prefix cache of
+ * {@link de.learnlib.abstractcounterexamples.experiments.icgi2014.CompiledDFAOracle})
+ * remains effective behind this cache.
+ */
+public class IntCacheOracle implements IntMembershipOracle {
+
+	private static final byte UNKNOWN = 0;
+	private static final byte REJECTED = 1;
+	private static final byte ACCEPTED = 2;
+
+	private static final int NO_NODE = 0; // the root is never a child
+	private static final int DEFAULT_CAPACITY = 256;
+
+	private final IntMembershipOracle delegate;
+	private final int alphabetSize;
+
+	// Prefix tree: children[node * alphabetSize + symIdx] is the child of node for
+	// the given symbol (or NO_NODE), node 0 is the root
+	private int[] children;
+	private byte[] answers;
+	private int numNodes;
+
+	/**
+	 * Constructor.
+	 * @param alphabetSize the size of the alphabet
+	 * @param delegate the oracle to pass queries with unknown answers to
+	 */
+	public IntCacheOracle(int alphabetSize, IntMembershipOracle delegate) {
+		this.delegate = delegate;
+		this.alphabetSize = alphabetSize;
+		this.children = new int[DEFAULT_CAPACITY * alphabetSize];
+		this.answers = new byte[DEFAULT_CAPACITY];
+		this.numNodes = 1;
+	}
+
+	@Override
+	public synchronized void processQueries(int numQueries, int[][] prefixes, int[] prefixLengths, int[][] suffixes,
+			boolean[] answers) {
+		int[] missIndices = null;
+		int[] missNodes = null;
+		int numMisses = 0;
+		for(int i = 0; i < numQueries; i++) {
+			int node = getNode(prefixes[i], prefixLengths[i], suffixes[i]);
+			byte answer = this.answers[node];
+			if(answer != UNKNOWN) {
+				answers[i] = (answer == ACCEPTED);
+				continue;
+			}
+			if(missIndices == null) {
+				missIndices = new int[numQueries - i];
+				missNodes = new int[numQueries - i];
+			}
+			missIndices[numMisses] = i;
+			missNodes[numMisses++] = node;
+		}
+
+		if(numMisses == 0) {
+			return;
+		}
+		if(numMisses == numQueries) {
+			delegate.processQueries(numQueries, prefixes, prefixLengths, suffixes, answers);
+		}
+		else {
+			int[][] missPrefixes = new int[numMisses][];
+			int[] missPrefixLengths = new int[numMisses];
+			int[][] missSuffixes = new int[numMisses][];
+			boolean[] missAnswers = new boolean[numMisses];
+			for(int j = 0; j < numMisses; j++) {
+				int i = missIndices[j];
+				missPrefixes[j] = prefixes[i];
+				missPrefixLengths[j] = prefixLengths[i];
+				missSuffixes[j] = suffixes[i];
+			}
+			delegate.processQueries(numMisses, missPrefixes, missPrefixLengths, missSuffixes, missAnswers);
+			for(int j = 0; j < numMisses; j++) {
+				answers[missIndices[j]] = missAnswers[j];
+			}
+		}
+		for(int j = 0; j < numMisses; j++) {
+			this.answers[missNodes[j]] = answers[missIndices[j]] ? ACCEPTED : REJECTED;
+		}
+	}
+
+	/**
+	 * Retrieves the number of words whose answers are stored in this cache.
+	 * @return the number of cached answers
+	 */
+	public synchronized int size() {
+		int size = 0;
+		for(int node = 0; node < numNodes; node++) {
+			if(answers[node] != UNKNOWN) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/*
+	 * Retrieves the node of the prefix tree for the given query, adding nodes if
+	 * necessary.
+	 */
+	private int getNode(int[] prefix, int prefixLength, int[] suffix) {
+		int node = 0;
+		for(int i = 0; i < prefixLength; i++) {
+			node = getChild(node, prefix[i]);
+		}
+		for(int sym : suffix) {
+			node = getChild(node, sym);
+		}
+		return node;
+	}
+
+	private int getChild(int node, int symIdx) {
+		int idx = node * alphabetSize + symIdx;
+		int child = children[idx];
+		if(child == NO_NODE) {
+			child = addNode();
+			children[idx] = child;
+		}
+		return child;
+	}
+
+	private int addNode() {
+		if(numNodes == answers.length) {
+			int capacity = numNodes * 2;
+			children = Arrays.copyOf(children, capacity * alphabetSize);
+			answers = Arrays.copyOf(answers, capacity);
+		}
+		return numNodes++;
+	}
+
+}
@@ -0,0 +1,40 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.algorithms.kv;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the queries that are passed to an {@link IntMembershipOracle}, analogously to
+ * {@link de.learnlib.oracles.CounterOracle}.
+ */
+public class IntCounterOracle implements IntMembershipOracle {
+
+	private final IntMembershipOracle delegate;
+	private final AtomicLong count = new AtomicLong(0L);
+
+	/**
+	 * Constructor.
+	 * @param delegate the oracle to pass the queries to
+	 */
+	public IntCounterOracle(IntMembershipOracle delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void processQueries(int numQueries, int[][] prefixes, int[] prefixLengths, int[][] suffixes,
+			boolean[] answers) {
+		count.addAndGet(numQueries);
+		delegate.processQueries(numQueries, prefixes, prefixLengths, suffixes, answers);
+	}
+
+	/**
+	 * Retrieves the number of queries that were posed so far.
+	 * @return the number of queries
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+}
@@ -0,0 +1,831 @@
+/* Copyright (C) 2014 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * LearnLib is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License version 3.0 as published by the Free Software Foundation.
+ *
+ * LearnLib is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with LearnLib; if not, see
+ * <http://www.gnu.de/documents/lgpl.en.html>.
+ */
+package de.learnlib.abstractcounterexamples.algorithms.kv;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.learnlib.abstractcounterexamples.AbstractCounterexample;
+import de.learnlib.abstractcounterexamples.AbstractCounterexampleAnalyzer;
+
+/**
+ * The Kearns/Vazirani algorithm for learning DFA, specialized to the alphabet
+ * <code>{0, ..., k-1}</code>. Symbols are represented by their indices, and words
+ * by arrays of symbol indices. The hypothesis, the discrimination tree and the access
+ * sequences are stored in flat arrays, such that neither symbols need to be boxed nor
+ * {@link net.automatalib.words.Word} objects be allocated during learning.
+ * <p>
+ * If counterexamples are evaluated repeatedly, the effect values computed for a
+ * counterexample can be reused for its next evaluation, too. After a refinement, only
+ * the effect values of indices whose state in the hypothesis run has changed are
+ * invalidated, as well as the effect values 0 of indices whose state has been split
+ * (an effect value 1, i.e., a prefix deviating from the path to the leaf of the state,
+ * remains valid when the leaf is split).
+ * <p>
+ * The run of the hypothesis on a counterexample is computed only once per
+ * counterexample, and is maintained incrementally afterwards: splitting a state only
+ * changes transitions that point to this state, hence only the part of the run
+ * starting with the first visit of the split state needs to be recomputed.
+ * <p>
+ * The access sequences are stored in a trie. A state that is created for a transition
+ * adds at most one node to it, but a state that is created from a counterexample has
+ * the counterexample prefix up to the analyzed index as its access sequence, which
+ * adds up to that many nodes. The trie therefore has at most
+ * <code>1 + n + p</code> nodes, where <code>n</code> is the number of states and
+ * <code>p</code> is the sum of the analyzed indices over all refinements from
+ * counterexamples (see {@link #getAveragePrefixLength()}). It is not bounded by
+ * <code>O(n)</code> in general, as the counterexamples may be arbitrarily long.
+ * <p>
+ * See {@link KearnsVaziraniDFA} for a learner over arbitrary alphabets, which is
+ * implemented on top of this class.
+ */
+public class IntKearnsVaziraniDFA {
+
+	/**
+	 * Receives notifications about changes of the hypothesis.
+	 */
+	public static interface HypothesisListener {
+		/**
+		 * Called when a state is added to the hypothesis. States are numbered
+		 * consecutively, starting with the initial state <code>0</code>.
+		 * @param state the new state
+		 * @param accepting whether the new state is accepting
+		 */
+		public void stateAdded(int state, boolean accepting);
+		/**
+		 * Called when a transition of the hypothesis is set.
+		 * @param state the source state
+		 * @param symIdx the symbol index
+		 * @param succ the successor state
+		 */
+		public void transitionSet(int state, int symIdx, int succ);
+	}
+
+	private static final int NO_STATE = -1;
+	private static final int NO_NODE = -1;
+	private static final int NO_TRANSITION = -1;
+	private static final int NO_AS_NODE = -1;
+	private static final int AS_ROOT = 0;
+	private static final int DT_ROOT = 0;
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int[] EMPTY_WORD = new int[0];
+
+	private class KVAbstractCounterexample extends AbstractCounterexample {
+
+		private final int[] ceWord;
+		private final int[] states;
+		// The node at which the prefix of the respective index leaves the path
+		// to the leaf of the hypothesis state, and the outcome of the query at this
+		// node
+		private final int[] lcaNodes;
+		private final boolean[] lcaOuts;
+
+		/**
+		 * Constructor.
+		 * @param ceWord the counterexample word
+		 * @param states the run of the current hypothesis on the counterexample word.
+		 * The array is used (and updated) by this object and must not be modified
+		 * afterwards
+		 */
+		public KVAbstractCounterexample(int[] ceWord, int[] states) {
+			super(ceWord.length);
+			this.ceWord = ceWord;
+
+			int m = ceWord.length;
+			this.states = states;
+			this.lcaNodes = new int[m + 1];
+			this.lcaOuts = new boolean[m + 1];
+			Arrays.fill(lcaNodes, NO_NODE);
+		}
+		
+		/**
+		 * Updates the run of the hypothesis on the counterexample word after a state has
+		 * been split. Splitting a state only changes the transitions pointing to this
+		 * state (and adds the transitions of the new state, which is not visited by the
+		 * old run). Hence, the run remains unchanged up to the first visit of the split
+		 * state.
+		 * <p>
+		 * If effect values are reused, all effect values which might have changed are
+		 * invalidated: those of indices where the run has changed, and the effect values
+		 * of <code>0</code> at indices where the run visits the split state (as the leaf
+		 * of this state has moved). An effect value of <code>1</code>, as well as the LCA
+		 * information, remains valid as long as the state is the same, even if it has
+		 * been split.
+		 * 
+		 * @param splitState the state that has been split
+		 */
+		public void update(int splitState) {
+			if(reuseEffectValues) {
+				for(int effect : getKnownEffects()) {
+					int idx = effect / 2;
+					if(effect % 2 == 0 && states[idx] == splitState) {
+						invalidateEffect(idx);
+					}
+				}
+			}
+
+			int m = ceWord.length;
+			int i = 1;
+			while(i <= m && states[i] != splitState) {
+				i++;
+			}
+			int state = states[i - 1];
+			for(; i <= m; i++) {
+				state = transitions[state * alphabetSize + ceWord[i - 1]];
+				if(state != states[i]) {
+					states[i] = state;
+					lcaNodes[i] = NO_NODE;
+					if(reuseEffectValues) {
+						invalidateEffect(i);
+					}
+				}
+			}
+		}
+
+		public boolean isOutputCorrect(boolean output) {
+			return accepting[states[ceWord.length]] == output;
+		}
+
+		public int getLCANode(int idx) {
+			if(lcaNodes[idx] == NO_NODE) {
+				doComputeEffect(idx);
+			}
+			return lcaNodes[idx];
+		}
+
+		public boolean getLCAOut(int idx) {
+			return lcaOuts[idx];
+		}
+
+		@Override
+		protected int doComputeEffect(int index) {
+			// Walk down the path from the root to the leaf representing the state,
+			// and check whether the prefix is sifted along the same path
+			int[] path = getDTPath(states[index]);
+			assert path[0] == DT_ROOT;
+
+			int leafDepth = path.length - 1;
+			for(int depth = 0; depth < leafDepth; depth++) {
+				int currNode = path[depth];
+				boolean out = query(ceWord, index, dtDiscriminators[currNode]);
+				totalAnalysisQueries.incrementAndGet();
+				totalAnalysisQuerySymbols.addAndGet(index + dtDiscriminators[currNode].length);
+				if(dtChild(currNode, out) != path[depth + 1]) {
+					lcaNodes[index] = currNode;
+					lcaOuts[index] = out;
+					return 1;
+				}
+			}
+
+			return 0;
+		}
+	}
+
+	private final int alphabetSize;
+	private final IntMembershipOracle oracle;
+	private final boolean repeatedCounterexampleEvaluation;
+	private final boolean reuseEffectValues;
+	private final HypothesisListener listener;
+
+	// The hypothesis. Transitions are indexed by transition id, i.e.,
+	// state * alphabetSize + symbol index
+	private int numStates;
+	private int[] transitions;
+	private boolean[] accepting;
+
+	// Per-state information, stored as a struct of arrays indexed by state id: the
+	// node of the access sequence in the access sequence trie, the leaf in the
+	// discrimination tree along with the (lazily computed) path from the root to this
+	// leaf, and the head of the list of incoming transitions.
+	private int[] stateAsNodes;
+	private int[] dtLeaves;
+	private int[][] dtPaths;
+	private int[] incomingHead;
+	// The lists of incoming transitions are stored in a single pool, indexed by
+	// transition id: each element points to the next transition with the same target
+	// state.
+	private int[] incomingNext;
+
+	// The discrimination tree. Inner nodes have a discriminator and two children
+	// (stored at index 2 * node + outcome), leaves have no discriminator and are
+	// associated with a state (or NO_STATE).
+	private int numDtNodes;
+	private int[] dtParents;
+	private int[] dtChildren;
+	private int[][] dtDiscriminators;
+	private int[] dtStates;
+
+	// The access sequences of all states are stored in a trie, where each node is
+	// represented by its parent node and the index of the last symbol.
+	private int[] asParents;
+	private int[] asSymbols;
+	private int[] asLengths;
+	private int numAsNodes;
+	private final TLongIntMap asChildren;
+
+	// Arrays for posing single queries
+	private final int[][] singlePrefix = new int[1][];
+	private final int[] singlePrefixLength = new int[1];
+	private final int[][] singleSuffix = new int[1][];
+	private final boolean[] singleAnswer = new boolean[1];
+
+	private final AbstractCounterexampleAnalyzer ceAnalyzer;
+
+	private final AtomicLong totalAnalysisQueries = new AtomicLong(0L);
+	private final AtomicLong totalAnalysisQuerySymbols = new AtomicLong(0L);
+	private final AtomicLong totalPrefixLength = new AtomicLong(0L);
+	private final AtomicInteger numCes = new AtomicInteger(0);
+
+
+	public long getTotalCEQueries() {
+		return totalAnalysisQueries.get();
+	}
+
+	public long getTotalCEQuerySymbols() {
+		return totalAnalysisQuerySymbols.get();
+	}
+
+	public double getAveragePrefixLength() {
+		return totalPrefixLength.doubleValue()/numCes.get();
+	}
+
+	/**
+	 * Constructor.
+	 * @param alphabetSize the size of the learning alphabet
+	 * @param oracle the membership oracle
+	 */
+	public IntKearnsVaziraniDFA(int alphabetSize, IntMembershipOracle oracle,
+			AbstractCounterexampleAnalyzer ceAnalyzer,
+			boolean repeatedCounterexampleEvaluation) {
+		this(alphabetSize, oracle, ceAnalyzer, repeatedCounterexampleEvaluation, false, null);
+	}
+
+	/**
+	 * Constructor.
+	 * @param alphabetSize the size of the learning alphabet
+	 * @param oracle the membership oracle
+	 * @param reuseEffectValues whether to reuse the effect values computed for a
+	 * counterexample in its next evaluation, if counterexamples are evaluated
+	 * repeatedly
+	 * @param listener the listener to notify about changes of the hypothesis, or
+	 * {@code null}
+	 */
+	public IntKearnsVaziraniDFA(int alphabetSize, IntMembershipOracle oracle,
+			AbstractCounterexampleAnalyzer ceAnalyzer,
+			boolean repeatedCounterexampleEvaluation,
+			boolean reuseEffectValues,
+			HypothesisListener listener) {
+		this.alphabetSize = alphabetSize;
+		this.oracle = oracle;
+		this.repeatedCounterexampleEvaluation = repeatedCounterexampleEvaluation;
+		this.reuseEffectValues = reuseEffectValues;
+		this.ceAnalyzer = ceAnalyzer;
+		this.listener = listener;
+		this.asChildren = new TLongIntHashMap(DEFAULT_CAPACITY, 0.5f, -1L, NO_AS_NODE);
+
+		initStateArrays(DEFAULT_CAPACITY);
+		initDiscriminationTree(DEFAULT_CAPACITY);
+		initAsTrie(DEFAULT_CAPACITY);
+	}
+
+	private void initStateArrays(int capacity) {
+		this.numStates = 0;
+		this.transitions = new int[capacity * alphabetSize];
+		this.accepting = new boolean[capacity];
+		this.stateAsNodes = new int[capacity];
+		this.dtLeaves = new int[capacity];
+		this.dtPaths = new int[capacity][];
+		this.incomingHead = new int[capacity];
+		this.incomingNext = new int[capacity * alphabetSize];
+	}
+
+	private void ensureStateCapacity(int numStates) {
+		int capacity = stateAsNodes.length;
+		if(numStates <= capacity) {
+			return;
+		}
+		capacity = Math.max(capacity * 2, numStates);
+		transitions = Arrays.copyOf(transitions, capacity * alphabetSize);
+		accepting = Arrays.copyOf(accepting, capacity);
+		stateAsNodes = Arrays.copyOf(stateAsNodes, capacity);
+		dtLeaves = Arrays.copyOf(dtLeaves, capacity);
+		dtPaths = Arrays.copyOf(dtPaths, capacity);
+		incomingHead = Arrays.copyOf(incomingHead, capacity);
+		incomingNext = Arrays.copyOf(incomingNext, capacity * alphabetSize);
+	}
+
+	private void initDiscriminationTree(int capacity) {
+		this.dtParents = new int[capacity];
+		this.dtChildren = new int[2 * capacity];
+		this.dtDiscriminators = new int[capacity][];
+		this.dtStates = new int[capacity];
+		this.numDtNodes = 0;
+
+		createDTNode(NO_NODE, NO_STATE); // root
+	}
+
+	private int createDTNode(int parent, int state) {
+		if(numDtNodes == dtParents.length) {
+			int capacity = numDtNodes * 2;
+			dtParents = Arrays.copyOf(dtParents, capacity);
+			dtChildren = Arrays.copyOf(dtChildren, 2 * capacity);
+			dtDiscriminators = Arrays.copyOf(dtDiscriminators, capacity);
+			dtStates = Arrays.copyOf(dtStates, capacity);
+		}
+		int node = numDtNodes++;
+		dtParents[node] = parent;
+		dtDiscriminators[node] = null;
+		dtStates[node] = state;
+		return node;
+	}
+
+	private boolean isLeaf(int node) {
+		return dtDiscriminators[node] == null;
+	}
+
+	private int dtChild(int node, boolean out) {
+		return dtChildren[2 * node + (out ? 1 : 0)];
+	}
+
+	/**
+	 * Splits a leaf of the discrimination tree, turning it into an inner node with the
+	 * given discriminator. The state of the leaf is moved to the child for the old
+	 * label, and the given new state is assigned to the child for the new label.
+	 *
+	 * @return the leaf for the old label. The leaf for the new label is the other child
+	 */
+	private int splitLeaf(int leaf, int[] discriminator, boolean oldLabel, boolean newLabel, int newState) {
+		int nodeOld = createDTNode(leaf, dtStates[leaf]);
+		int nodeNew = createDTNode(leaf, newState);
+		dtDiscriminators[leaf] = discriminator;
+		dtStates[leaf] = NO_STATE;
+		dtChildren[2 * leaf + (oldLabel ? 1 : 0)] = nodeOld;
+		dtChildren[2 * leaf + (newLabel ? 1 : 0)] = nodeNew;
+		return nodeOld;
+	}
+
+	private void initAsTrie(int capacity) {
+		this.asParents = new int[capacity];
+		this.asSymbols = new int[capacity];
+		this.asLengths = new int[capacity];
+
+		asParents[AS_ROOT] = NO_AS_NODE;
+		asSymbols[AS_ROOT] = -1;
+		asLengths[AS_ROOT] = 0;
+		this.numAsNodes = 1;
+	}
+
+	/**
+	 * Retrieves the trie node for the access sequence extending the access sequence
+	 * represented by the given node by a single symbol, creating it if necessary.
+	 *
+	 * @param node the trie node of the access sequence to extend
+	 * @param symIdx the index of the symbol to append
+	 * @return the trie node of the extended access sequence
+	 */
+	private int getAsChild(int node, int symIdx) {
+		long key = (long)node * alphabetSize + symIdx;
+		int child = asChildren.get(key);
+		if(child == NO_AS_NODE) {
+			if(numAsNodes == asParents.length) {
+				int capacity = numAsNodes * 2;
+				asParents = Arrays.copyOf(asParents, capacity);
+				asSymbols = Arrays.copyOf(asSymbols, capacity);
+				asLengths = Arrays.copyOf(asLengths, capacity);
+			}
+			child = numAsNodes++;
+			asParents[child] = node;
+			asSymbols[child] = symIdx;
+			asLengths[child] = asLengths[node] + 1;
+			asChildren.put(key, child);
+		}
+		return child;
+	}
+
+	private int insertAccessSequence(int[] word, int length) {
+		int node = AS_ROOT;
+		for(int i = 0; i < length; i++) {
+			node = getAsChild(node, word[i]);
+		}
+		return node;
+	}
+
+	/**
+	 * Writes the access sequence of a transition, i.e., the access sequence of its
+	 * source state followed by its symbol, into a new array. The symbols are read
+	 * directly from the access sequence trie.
+	 * @param trans the transition id
+	 * @return the access sequence of the transition
+	 */
+	private int[] getTransitionAccessSequence(int trans) {
+		int node = stateAsNodes[trans / alphabetSize];
+		int[] as = new int[asLengths[node] + 1];
+		as[as.length - 1] = trans % alphabetSize;
+		for(int i = as.length - 2; i >= 0; i--) {
+			as[i] = asSymbols[node];
+			node = asParents[node];
+		}
+		return as;
+	}
+
+	public void startLearning() {
+		initialize();
+	}
+
+	/**
+	 * Refines the hypothesis using a counterexample.
+	 * @param input the counterexample word, which must not be modified afterwards
+	 * @param output the output of the target system for the counterexample
+	 * @return {@code true} if the hypothesis was refined, {@code false} if the given
+	 * word is not a counterexample
+	 */
+	public boolean refineHypothesis(int[] input, boolean output) {
+		if(numStates == 0) {
+			throw new IllegalStateException("Not initialized");
+		}
+		if(input.length < 2) {
+			return false;
+		}
+		// The run of the current hypothesis on the counterexample, which is updated
+		// after each split
+		int[] run = new int[input.length + 1];
+		computeRun(input, run);
+		
+		KVAbstractCounterexample acex = new KVAbstractCounterexample(input, run);
+		if(!refineHypothesisSingle(acex, input, output)) {
+			return false;
+		}
+		if(repeatedCounterexampleEvaluation) {
+			do {
+				if(!reuseEffectValues) {
+					acex = new KVAbstractCounterexample(input, run);
+				}
+			} while(refineHypothesisSingle(acex, input, output));
+		}
+		return true;
+	}
+
+
+	/**
+	 * Analyzes a counterexample without refining the hypothesis, i.e., determines the
+	 * index at which the run of the hypothesis on the counterexample has to be
+	 * refined, and sifts the corresponding prefix into the discrimination tree up to
+	 * the node at which it diverges from the hypothesis state. This is the work
+	 * performed by {@link #refineHypothesis(int[], boolean)} for each split, except
+	 * for updating the hypothesis. The learning statistics are not affected, apart
+	 * from the number of queries for counterexample analysis.
+	 * 
+	 * @param input the counterexample word, which must not be modified afterwards
+	 * @param output the output of the target system for the counterexample
+	 * @param analyzer the analyzer to use, instead of the one of this learner
+	 * @return the index determined by the analyzer, or <code>-1</code> if the given
+	 * word is not a counterexample
+	 */
+	public int analyzeCounterexample(int[] input, boolean output, AbstractCounterexampleAnalyzer analyzer) {
+		if(numStates == 0) {
+			throw new IllegalStateException("Not initialized");
+		}
+		if(input.length < 2) {
+			return -1;
+		}
+		int[] run = new int[input.length + 1];
+		computeRun(input, run);
+		
+		KVAbstractCounterexample acex = new KVAbstractCounterexample(input, run);
+		if(acex.isOutputCorrect(output)) {
+			return -1;
+		}
+		int idx = analyzer.analyzeAbstractCounterexample(acex);
+		acex.getLCANode(idx + 1);
+		return idx;
+	}
+
+	private boolean refineHypothesisSingle(KVAbstractCounterexample acex, int[] input, boolean output) {
+		if(acex.isOutputCorrect(output)) {
+			return false;
+		}
+
+		int idx = ceAnalyzer.analyzeAbstractCounterexample(acex);
+		totalPrefixLength.addAndGet(idx);
+		numCes.incrementAndGet();
+
+		int srcState = acex.states[idx];
+		int sym = input[idx];
+		int lcaNode = acex.getLCANode(idx + 1);
+		assert lcaNode != NO_NODE;
+		boolean lcaOut = acex.getLCAOut(idx + 1);
+
+		splitState(srcState, insertAccessSequence(input, idx), sym, lcaNode, !lcaOut, lcaOut);
+		acex.update(srcState);
+		return true;
+	}
+	
+	private void computeRun(int[] word, int[] states) {
+		int state = getInitialState();
+		states[0] = state;
+		for(int i = 0; i < word.length; i++) {
+			state = transitions[state * alphabetSize + word[i]];
+			states[i + 1] = state;
+		}
+	}
+	
+	private void splitState(int state, int newAsNode, int sym, int separator, boolean oldLabel, boolean newLabel) {
+		boolean oldAccepting = accepting[state];
+		int oldIncoming = fetchIncoming(state);
+
+		int newState = createState(newAsNode, oldAccepting);
+
+		int stateLeaf = dtLeaves[state];
+
+		int[] newDiscriminator = newDiscriminator(sym, dtDiscriminators[separator]);
+
+		int nodeOld = splitLeaf(stateLeaf, newDiscriminator, oldLabel, newLabel, newState);
+
+		setDTLeaf(state, nodeOld);
+		setDTLeaf(newState, dtChild(stateLeaf, newLabel));
+
+		initState(newState);
+
+		updateTransitions(oldIncoming, stateLeaf);
+	}
+
+
+	private void updateTransitions(int firstTrans, int oldDtTarget) {
+		// Collect the transitions first, as re-setting them modifies the incoming
+		// transition lists
+		int numTrans = 0;
+		for(int trans = firstTrans; trans != NO_TRANSITION; trans = incomingNext[trans]) {
+			numTrans++;
+		}
+
+		int[] transIds = new int[numTrans];
+		int i = 0;
+		for(int trans = firstTrans; trans != NO_TRANSITION; trans = incomingNext[trans]) {
+			transIds[i++] = trans;
+		}
+
+		int[] leaves = sift(oldDtTarget, transIds);
+
+		for(i = 0; i < numTrans; i++) {
+			int trans = transIds[i];
+
+			int succ = getState(leaves[i], trans);
+			setTransition(trans / alphabetSize, trans % alphabetSize, succ);
+		}
+	}
+
+	private static int[] newDiscriminator(int symbol, int[] succDiscriminator) {
+		int[] discriminator = new int[succDiscriminator.length + 1];
+		discriminator[0] = symbol;
+		System.arraycopy(succDiscriminator, 0, discriminator, 1, succDiscriminator.length);
+		return discriminator;
+	}
+
+	/**
+	 * Retrieves the number of states of the hypothesis.
+	 * @return the number of states
+	 */
+	public int size() {
+		return numStates;
+	}
+
+	/**
+	 * Retrieves the initial state of the hypothesis.
+	 * @return the initial state
+	 */
+	public int getInitialState() {
+		return 0;
+	}
+
+	/**
+	 * Retrieves the successor of a state in the hypothesis.
+	 * @param state the source state
+	 * @param symIdx the symbol index
+	 * @return the successor state
+	 */
+	public int getSuccessor(int state, int symIdx) {
+		return transitions[state * alphabetSize + symIdx];
+	}
+
+	/**
+	 * Checks whether a state of the hypothesis is accepting.
+	 * @param state the state
+	 * @return {@code true} if the state is accepting, {@code false} otherwise
+	 */
+	public boolean isAccepting(int state) {
+		return accepting[state];
+	}
+
+	/**
+	 * Checks whether the hypothesis accepts a word.
+	 * @param word the word
+	 * @return {@code true} if the word is accepted, {@code false} otherwise
+	 */
+	public boolean accepts(int[] word) {
+		int state = getInitialState();
+		for(int sym : word) {
+			state = transitions[state * alphabetSize + sym];
+		}
+		return accepting[state];
+	}
+
+
+	private void initialize() {
+		boolean initAccepting = query(EMPTY_WORD, 0, EMPTY_WORD);
+		int initState = createState(AS_ROOT, initAccepting);
+
+		dtStates[DT_ROOT] = initState;
+		setDTLeaf(initState, splitLeaf(DT_ROOT, EMPTY_WORD, initAccepting, !initAccepting, NO_STATE));
+
+		initState(initState);
+	}
+
+	private int createState(int asNode, boolean acc) {
+		int state = numStates++;
+		ensureStateCapacity(numStates);
+		accepting[state] = acc;
+		stateAsNodes[state] = asNode;
+		incomingHead[state] = NO_TRANSITION;
+		if(listener != null) {
+			listener.stateAdded(state, acc);
+		}
+
+		return state;
+	}
+
+	private void setDTLeaf(int state, int leaf) {
+		dtLeaves[state] = leaf;
+		dtPaths[state] = null;
+	}
+
+	/**
+	 * Retrieves the path from the root of the discrimination tree to the leaf
+	 * of a state, i.e., the element at index <code>d</code> is the ancestor
+	 * of depth <code>d</code>. The path is computed lazily, and remains valid
+	 * until the state is moved to another leaf.
+	 * @param state the state
+	 * @return the path from the root to the leaf of the given state
+	 */
+	private int[] getDTPath(int state) {
+		int[] path = dtPaths[state];
+		if(path == null) {
+			int leaf = dtLeaves[state];
+			int depth = 0;
+			for(int n = dtParents[leaf]; n != NO_NODE; n = dtParents[n]) {
+				depth++;
+			}
+			path = new int[depth + 1];
+			int n = leaf;
+			for(int i = depth; i >= 0; i--) {
+				path[i] = n;
+				n = dtParents[n];
+			}
+			dtPaths[state] = path;
+		}
+		return path;
+	}
+
+	private void initState(int state) {
+		int[] transIds = new int[alphabetSize];
+		for(int i = 0; i < alphabetSize; i++) {
+			transIds[i] = state * alphabetSize + i;
+		}
+
+		int[] leaves = sift(DT_ROOT, transIds);
+
+		for(int i = 0; i < alphabetSize; i++) {
+			int succ = getState(leaves[i], state * alphabetSize + i);
+			setTransition(state, i, succ);
+		}
+	}
+
+	private void setTransition(int state, int symIdx, int succ) {
+		int trans = state * alphabetSize + symIdx;
+		incomingNext[trans] = incomingHead[succ];
+		incomingHead[succ] = trans;
+		transitions[trans] = succ;
+		if(listener != null) {
+			listener.transitionSet(state, symIdx, succ);
+		}
+	}
+
+	/**
+	 * Removes all incoming transitions of a state.
+	 * @param state the state
+	 * @return the first of the removed incoming transitions, the others can be
+	 * obtained by following the {@link #incomingNext} pointers
+	 */
+	private int fetchIncoming(int state) {
+		int first = incomingHead[state];
+		incomingHead[state] = NO_TRANSITION;
+		return first;
+	}
+
+	private boolean query(int[] prefix, int prefixLength, int[] suffix) {
+		singlePrefix[0] = prefix;
+		singlePrefixLength[0] = prefixLength;
+		singleSuffix[0] = suffix;
+		oracle.processQueries(1, singlePrefix, singlePrefixLength, singleSuffix, singleAnswer);
+		return singleAnswer[0];
+	}
+
+	/**
+	 * Sifts the access sequences of several transitions into the discrimination tree,
+	 * starting at a given node. Other than sifting every access sequence individually,
+	 * all of them are advanced one level at a time, and the queries for each level are
+	 * posed to the oracle in a single batch. Hence, the number of batches is bounded by
+	 * the depth of the discrimination tree, independently of the number of transitions.
+	 *
+	 * @param start the node to start sifting at
+	 * @param transIds the ids of the transitions whose access sequences to sift
+	 * @return an array containing the leaves the respective access sequences were
+	 * sifted into
+	 */
+	private int[] sift(int start, int[] transIds) {
+		int num = transIds.length;
+
+		// The access sequences are handed over to the oracle, and are never modified
+		int[][] prefixes = new int[num][];
+		for(int i = 0; i < num; i++) {
+			prefixes[i] = getTransitionAccessSequence(transIds[i]);
+		}
+
+		int[] nodes = new int[num];
+		Arrays.fill(nodes, start);
+
+		int[] active = new int[num];
+		int[][] queryPrefixes = new int[num][];
+		int[] queryPrefixLengths = new int[num];
+		int[][] querySuffixes = new int[num][];
+		boolean[] answers = new boolean[num];
+
+		while(true) {
+			int numActive = 0;
+			for(int i = 0; i < num; i++) {
+				int node = nodes[i];
+				if(!isLeaf(node)) {
+					queryPrefixes[numActive] = prefixes[i];
+					queryPrefixLengths[numActive] = prefixes[i].length;
+					querySuffixes[numActive] = dtDiscriminators[node];
+					active[numActive++] = i;
+				}
+			}
+
+			if(numActive == 0) {
+				return nodes;
+			}
+
+			oracle.processQueries(numActive, queryPrefixes, queryPrefixLengths, querySuffixes, answers);
+
+			for(int j = 0; j < numActive; j++) {
+				int i = active[j];
+				nodes[i] = dtChild(nodes[i], answers[j]);
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the state associated with a leaf that the access sequence of a
+	 * transition was sifted into.
+	 *
+	 * @param leaf the leaf
+	 * @param trans the id of the transition whose access sequence was sifted into
+	 * this leaf
+	 * @return the state associated with the leaf
+	 */
+	private int getState(int leaf, int trans) {
+		int succ = dtStates[leaf];
+		if(succ == NO_STATE) {
+			// Special case: this is the *first* state of a different
+			// acceptance than the initial state
+			boolean initAccepting = accepting[getInitialState()];
+			int asNode = getAsChild(stateAsNodes[trans / alphabetSize], trans % alphabetSize);
+			succ = createState(asNode, !initAccepting);
+			dtStates[leaf] = succ;
+			setDTLeaf(succ, leaf);
+
+			initState(succ);
+		}
+
+		return succ;
+	}
+
+}
@@ -0,0 +1,36 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.algorithms.kv;
+
+/**
+ * Membership oracle for DFAs over the alphabet <code>{0, ..., k-1}</code>, operating
+ * on words that are represented as arrays of symbol indices. Other than a
+ * {@link de.learnlib.api.MembershipOracle}, this does not require boxing symbols or
+ * allocating {@link net.automatalib.words.Word} objects.
+ * <p>
+ * The prefix and suffix arrays that are passed to
+ * {@link #processQueries(int, int[][], int[], int[][], boolean[])} are handed over to
+ * the oracle: callers must not modify their contents afterwards, hence implementations
+ * may retain references to them (e.g., as keys for caching). Implementations must not
+ * modify them either. The other arrays (i.e., the arrays holding the prefixes, prefix
+ * lengths and suffixes, and the <code>answers</code> array) may be reused by the
+ * callers, and must not be retained.
+ */
+public interface IntMembershipOracle {
+
+	/**
+	 * Answers a batch of membership queries. The <code>i</code>-th query consists of
+	 * the first <code>prefixLengths[i]</code> symbols of <code>prefixes[i]</code>,
+	 * followed by all symbols of <code>suffixes[i]</code>.
+	 *
+	 * @param numQueries the number of queries
+	 * @param prefixes the arrays containing the prefixes
+	 * @param prefixLengths the lengths of the prefixes
+	 * @param suffixes the suffixes
+	 * @param answers the array to store the answers in
+	 */
+	public void processQueries(int numQueries, int[][] prefixes, int[] prefixLengths, int[][] suffixes,
+			boolean[] answers);
+
+}
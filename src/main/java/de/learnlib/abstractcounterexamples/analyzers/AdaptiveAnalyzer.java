@@ -0,0 +1,117 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.analyzers;
+
+import de.learnlib.abstractcounterexamples.AbstractCounterexample;
+
+/**
+ * An analyzer that adapts its search strategy to the positions of the breakpoints
+ * found in previous analyses. Which fixed strategy performs best depends on where
+ * breakpoints tend to be located (e.g., close to the end of the counterexample
+ * for Rivest&amp;Schapire-style analysis, close to its beginning for Kearns/Vazirani).
+ * <p>
+ * This analyzer maintains a histogram of the relative positions of the breakpoints it
+ * has returned, and performs a weighted binary search (see
+ * {@link AnalysisAlgorithms#weightedBinarySearch(AbstractCounterexample, int, int, double[])})
+ * according to the estimated distribution. To bound the number of queries in case the
+ * estimate is poor, this distribution is mixed with a uniform one: since every index
+ * has a probability of at least <code>UNIFORM_WEIGHT/m</code>, no analysis requires
+ * much more than <code>log_2(m/UNIFORM_WEIGHT)</code> queries. Older observations
+ * are gradually discounted, such that the analyzer also adapts to a changing
+ * distribution.
+ * <p>
+ * Since the histogram is learned online, every instance of this class should only
+ * be used in a single kind of learning setup. Instances are thread-safe.
+ */
+public class AdaptiveAnalyzer extends NamedAnalyzer {
+	
+	public static final int DEFAULT_NUM_BUCKETS = 64;
+	
+	// Weight of the uniform distribution in the mixture
+	private static final double UNIFORM_WEIGHT = 0.25;
+	// Number of observations after which all counts are halved
+	private static final long MAX_OBSERVATIONS = 1L << 16;
+	
+	private final long[] counts;
+	private long numObservations;
+	
+	/**
+	 * Constructor. Creates an adaptive analyzer with the default number of histogram
+	 * buckets.
+	 */
+	public AdaptiveAnalyzer() {
+		this("Adaptive", DEFAULT_NUM_BUCKETS);
+	}
+	
+	/**
+	 * Constructor.
+	 * @param numBuckets the number of histogram buckets, must be at least 1
+	 */
+	public AdaptiveAnalyzer(int numBuckets) {
+		this("Adaptive-" + numBuckets, numBuckets);
+	}
+	
+	private AdaptiveAnalyzer(String name, int numBuckets) {
+		super(name);
+		if(numBuckets < 1) {
+			throw new IllegalArgumentException("Number of buckets must be at least 1, is " + numBuckets);
+		}
+		this.counts = new long[numBuckets];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.learnlib.abstractcounterexamples.AbstractCounterexampleAnalyzer#analyzeAbstractCounterexample(de.learnlib.abstractcounterexamples.AbstractCounterexample)
+	 */
+	@Override
+	public int analyzeAbstractCounterexample(AbstractCounterexample acex) {
+		int m = acex.getLength();
+		int idx = AnalysisAlgorithms.weightedBinarySearch(acex, 0, m, getDistribution());
+		addObservation(idx, m);
+		return idx;
+	}
+	
+	/**
+	 * Retrieves the current estimate of the distribution of relative breakpoint
+	 * positions, in the format expected by
+	 * {@link AnalysisAlgorithms#weightedBinarySearch(AbstractCounterexample, int, int, double[])}.
+	 * 
+	 * @return the cumulative distribution of relative breakpoint positions
+	 */
+	public synchronized double[] getDistribution() {
+		int n = counts.length;
+		double[] distribution = new double[n + 1];
+		double histWeight = (numObservations > 0) ? (1.0 - UNIFORM_WEIGHT) / numObservations : 0.0;
+		double uniformWeight = (numObservations > 0) ? UNIFORM_WEIGHT / n : 1.0 / n;
+		
+		double sum = 0.0;
+		for(int i = 0; i < n; i++) {
+			sum += uniformWeight + histWeight * counts[i];
+			distribution[i + 1] = sum;
+		}
+		// Eliminate rounding errors
+		for(int i = 1; i < n; i++) {
+			distribution[i] /= sum;
+		}
+		distribution[n] = 1.0;
+		
+		return distribution;
+	}
+	
+	private synchronized void addObservation(int idx, int m) {
+		int n = counts.length;
+		int bucket = (int)(((2L * idx + 1) * n) / (2L * m));
+		counts[Math.min(bucket, n - 1)]++;
+		numObservations++;
+		
+		if(numObservations >= MAX_OBSERVATIONS) {
+			numObservations = 0;
+			for(int i = 0; i < n; i++) {
+				counts[i] /= 2;
+				numObservations += counts[i];
+			}
+		}
+	}
+
+}
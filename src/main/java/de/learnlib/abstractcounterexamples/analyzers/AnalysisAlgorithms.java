@@ -24,6 +24,10 @@ import de.learnlib.abstractcounterexamples.AbstractCounterexample;
  */
 public class AnalysisAlgorithms {
 	
+	// Number of candidate probes per round in the cost-aware search
+	private static final int COST_AWARE_CANDIDATES = 15;
+	private static final double[] UNIFORM_DISTRIBUTION = { 0.0, 1.0 };
+	
 	/**
 	 * Scan linearly through the counterexample in ascending order.
 	 * 
@@ -101,6 +105,78 @@ public class AnalysisAlgorithms {
 		return binarySearch(acex, low, high);
 	}
 	
+	/**
+	 * Search for a suffix index using an exponential search. Other than
+	 * {@link #exponentialSearch(AbstractCounterexample, int, int)}, all probes of the
+	 * exponential phase are determined in advance and evaluated in a single batch
+	 * (see {@link AbstractCounterexample#testEffects(int...)}). This reduces the
+	 * number of round-trips, at the cost of possibly evaluating more probes.
+	 * 
+	 * @param acex the abstract counterexample
+	 * @param low the lower bound of the search range
+	 * @param high the upper bound of the search range
+	 * @return an index <code>i</code> such that
+	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+	 */
+	public static int exponentialSearchBatched(AbstractCounterexample acex, int low, int high) {
+		int numProbes = 0;
+		for(int ofs = 1, h = high; h - ofs > low; h -= ofs, ofs *= 2) {
+			numProbes++;
+		}
+		
+		int[] probes = new int[numProbes];
+		for(int i = 0, ofs = 1, h = high; i < numProbes; i++, h -= ofs, ofs *= 2) {
+			probes[i] = h - ofs;
+		}
+		
+		int[] effects = acex.testEffects(probes);
+		for(int i = 0; i < numProbes; i++) {
+			if(effects[i] == 0) {
+				low = probes[i];
+				break;
+			}
+			high = probes[i];
+		}
+		
+		return binarySearch(acex, low, high);
+	}
+	
+	/**
+	 * Search for a suffix index using an exponential search in ascending order,
+	 * starting at the lower bound of the search range. Other than
+	 * {@link #exponentialSearchReverse(AbstractCounterexample, int, int)}, all probes of
+	 * the exponential phase are determined in advance and evaluated in a single batch
+	 * (see {@link AbstractCounterexample#testEffects(int...)}).
+	 * 
+	 * @param acex the abstract counterexample
+	 * @param low the lower bound of the search range
+	 * @param high the upper bound of the search range
+	 * @return an index <code>i</code> such that
+	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+	 */
+	public static int exponentialSearchReverseBatched(AbstractCounterexample acex, int low, int high) {
+		int numProbes = 0;
+		for(int ofs = 1, l = low; l + ofs < high; l += ofs, ofs *= 2) {
+			numProbes++;
+		}
+		
+		int[] probes = new int[numProbes];
+		for(int i = 0, ofs = 1, l = low; i < numProbes; i++, l += ofs, ofs *= 2) {
+			probes[i] = l + ofs;
+		}
+		
+		int[] effects = acex.testEffects(probes);
+		for(int i = 0; i < numProbes; i++) {
+			if(effects[i] == 1) {
+				high = probes[i];
+				break;
+			}
+			low = probes[i];
+		}
+		
+		return binarySearch(acex, low, high);
+	}
+	
 	/**
 	 * Search for a suffix index using a binary search.
 	 * 
@@ -124,6 +200,282 @@ public class AnalysisAlgorithms {
 		return low;
 	}
 	
+	/**
+	 * Search for a suffix index using a weighted binary search. Other than
+	 * {@link #binarySearch(AbstractCounterexample, int, int)}, the search range is not
+	 * split in the middle, but such that both parts have the same probability of
+	 * containing the breakpoint, according to a given distribution of breakpoint
+	 * positions. If this distribution matches the actual one, the expected number of
+	 * queries is minimized.
+	 * <p>
+	 * The distribution is given as a cumulative histogram over the <i>relative</i>
+	 * breakpoint positions, i.e., positions in the interval <code>[0,1]</code>,
+	 * divided into <code>n</code> buckets of equal width: the probability of the
+	 * breakpoint lying in the first <code>b</code> buckets is
+	 * <code>distribution[b]</code>. The breakpoint positions are assumed to be
+	 * distributed uniformly within each bucket, and every bucket must have a positive
+	 * probability.
+	 * 
+	 * @param acex the abstract counterexample
+	 * @param low the lower bound of the search range
+	 * @param high the upper bound of the search range
+	 * @param distribution the cumulative distribution of the relative breakpoint
+	 * positions, of length <code>n+1</code>, with <code>distribution[0] == 0</code>
+	 * and <code>distribution[n] == 1</code>
+	 * @return an index <code>i</code> such that
+	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+	 */
+	public static int weightedBinarySearch(AbstractCounterexample acex, int low, int high, double[] distribution) {
+		double m = acex.getLength();
+		
+		while(high - low > 1) {
+			// The breakpoint lies in [low, high), the probe mid splits this into
+			// [low, mid) and [mid, high)
+			double target = (cumulativeProbability(distribution, low / m)
+					+ cumulativeProbability(distribution, high / m)) / 2.0;
+			int mid = (int)Math.round(inverseCumulativeProbability(distribution, target) * m);
+			if(mid <= low) {
+				mid = low + 1;
+			}
+			else if(mid >= high) {
+				mid = high - 1;
+			}
+			
+			if(acex.testEffect(mid) == 0) {
+				low = mid;
+			}
+			else {
+				high = mid;
+			}
+		}
+		
+		return low;
+	}
+	
+	private static double cumulativeProbability(double[] distribution, double x) {
+		int n = distribution.length - 1;
+		double pos = x * n;
+		int bucket = Math.min((int)pos, n - 1);
+		return distribution[bucket] + (pos - bucket) * (distribution[bucket + 1] - distribution[bucket]);
+	}
+	
+	private static double inverseCumulativeProbability(double[] distribution, double p) {
+		int n = distribution.length - 1;
+		int bucket = 0;
+		while(bucket < n - 1 && distribution[bucket + 1] <= p) {
+			bucket++;
+		}
+		double width = distribution[bucket + 1] - distribution[bucket];
+		return (bucket + (p - distribution[bucket]) / width) / n;
+	}
+	
+	/**
+	 * Search for a suffix index using a cost-aware binary search, assuming a uniform
+	 * distribution of the breakpoint (see
+	 * {@link #costAwareSearch(AbstractCounterexample, int, int, double[])}).
+	 * 
+	 * @param acex the abstract counterexample
+	 * @param low the lower bound of the search range
+	 * @param high the upper bound of the search range
+	 * @return an index <code>i</code> such that
+	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+	 */
+	public static int costAwareSearch(AbstractCounterexample acex, int low, int high) {
+		return costAwareSearch(acex, low, high, UNIFORM_DISTRIBUTION);
+	}
+	
+	/**
+	 * Search for a suffix index using a cost-aware binary search. Other than
+	 * {@link #weightedBinarySearch(AbstractCounterexample, int, int, double[])}, which
+	 * minimizes the expected number of queries, this search aims at minimizing their
+	 * expected total cost, as estimated by
+	 * {@link AbstractCounterexample#estimateCost(int)}.
+	 * <p>
+	 * In each round, several candidate probes are considered: quantiles of the
+	 * breakpoint probability within the search range, and evenly spaced indices
+	 * (including both ends of the range, where queries may be particularly cheap). The
+	 * one minimizing the cost of the probe plus the expected cost of the remaining
+	 * search is evaluated. The number of
+	 * queries of the remaining search is estimated by the entropy of the breakpoint
+	 * distribution within the remaining range, and the cost of each such query by the
+	 * cost of the probability median of that range. If all indices have the same cost,
+	 * this is a weighted binary search.
+	 * 
+	 * @param acex the abstract counterexample
+	 * @param low the lower bound of the search range
+	 * @param high the upper bound of the search range
+	 * @param distribution the cumulative distribution of the relative breakpoint
+	 * positions, see
+	 * {@link #weightedBinarySearch(AbstractCounterexample, int, int, double[])}
+	 * @return an index <code>i</code> such that
+	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+	 */
+	public static int costAwareSearch(AbstractCounterexample acex, int low, int high, double[] distribution) {
+		double m = acex.getLength();
+		
+		while(high - low > 1) {
+			double lowProb = cumulativeProbability(distribution, low / m);
+			double highProb = cumulativeProbability(distribution, high / m);
+			
+			// Start with the probability median, such that ties are resolved in favor of
+			// a balanced split
+			int best = probabilityQuantile(distribution, low, high, m, (lowProb + highProb) / 2.0);
+			double bestCost = expectedSearchCost(acex, distribution, low, best, high, m);
+			for(int i = 0; i <= COST_AWARE_CANDIDATES + 1; i++) {
+				// Quantiles of the probability, and evenly spaced indices (including both
+				// ends of the range)
+				double p = lowProb + (highProb - lowProb) * i / (COST_AWARE_CANDIDATES + 1);
+				int probe = probabilityQuantile(distribution, low, high, m, p);
+				double cost = expectedSearchCost(acex, distribution, low, probe, high, m);
+				if(cost < bestCost) {
+					best = probe;
+					bestCost = cost;
+				}
+				probe = low + (int)((long)(high - low) * i / (COST_AWARE_CANDIDATES + 1));
+				probe = Math.max(low + 1, Math.min(probe, high - 1));
+				cost = expectedSearchCost(acex, distribution, low, probe, high, m);
+				if(cost < bestCost) {
+					best = probe;
+					bestCost = cost;
+				}
+			}
+			
+			if(acex.testEffect(best) == 0) {
+				low = best;
+			}
+			else {
+				high = best;
+			}
+		}
+		
+		return low;
+	}
+	
+	/*
+	 * Determines the probe (strictly between low and high) that is closest to the
+	 * given quantile of the breakpoint distribution.
+	 */
+	private static int probabilityQuantile(double[] distribution, int low, int high, double m, double p) {
+		int probe = (int)Math.round(inverseCumulativeProbability(distribution, p) * m);
+		if(probe <= low) {
+			return low + 1;
+		}
+		if(probe >= high) {
+			return high - 1;
+		}
+		return probe;
+	}
+	
+	private static double expectedSearchCost(AbstractCounterexample acex, double[] distribution, int low, int probe,
+			int high, double m) {
+		double lowProb = cumulativeProbability(distribution, low / m);
+		double probeProb = cumulativeProbability(distribution, probe / m);
+		double highProb = cumulativeProbability(distribution, high / m);
+		double total = highProb - lowProb;
+		
+		return acex.estimateCost(probe)
+				+ ((probeProb - lowProb) / total) * estimatedSearchCost(acex, distribution, low, probe, m)
+				+ ((highProb - probeProb) / total) * estimatedSearchCost(acex, distribution, probe, high, m);
+	}
+	
+	private static double estimatedSearchCost(AbstractCounterexample acex, double[] distribution, int low, int high,
+			double m) {
+		if(high - low <= 1) {
+			return 0.0;
+		}
+		double lowProb = cumulativeProbability(distribution, low / m);
+		double highProb = cumulativeProbability(distribution, high / m);
+		int median = probabilityQuantile(distribution, low, high, m, (lowProb + highProb) / 2.0);
+		return acex.estimateCost(median) * entropy(distribution, low, high, m);
+	}
+	
+	/*
+	 * Computes the entropy (in bits) of the breakpoint distribution restricted to the
+	 * indices in [low, high). If there are fewer indices than buckets in this range,
+	 * the probabilities of the single indices are considered. Otherwise, the
+	 * probability is assumed to be spread evenly over all indices within a bucket.
+	 */
+	private static double entropy(double[] distribution, int low, int high, double m) {
+		int n = distribution.length - 1;
+		double lowPos = low * n / m;
+		double highPos = high * n / m;
+		double total = cumulativeProbability(distribution, high / m) - cumulativeProbability(distribution, low / m);
+		
+		double entropy = 0.0;
+		if(high - low <= highPos - lowPos) {
+			double prevProb = cumulativeProbability(distribution, low / m);
+			for(int i = low; i < high; i++) {
+				double nextProb = cumulativeProbability(distribution, (i + 1) / m);
+				double prob = (nextProb - prevProb) / total;
+				if(prob > 0.0) {
+					entropy -= prob * Math.log(prob);
+				}
+				prevProb = nextProb;
+			}
+			return entropy / Math.log(2);
+		}
+		
+		int firstBucket = Math.min((int)lowPos, n - 1);
+		for(int bucket = firstBucket; bucket < n && bucket < highPos; bucket++) {
+			double width = Math.min(highPos, bucket + 1) - Math.max(lowPos, bucket);
+			if(width <= 0.0) {
+				continue;
+			}
+			double prob = (distribution[bucket + 1] - distribution[bucket]) * width / total;
+			double numIndices = width * m / n;
+			if(prob > 0.0) {
+				entropy += prob * Math.log(numIndices / prob);
+			}
+		}
+		entropy /= Math.log(2);
+		
+		return Math.max(0.0, Math.min(entropy, Math.log(high - low) / Math.log(2)));
+	}
+	
+	/**
+	 * Search for a suffix index using a k-ary search. In each round, <code>k-1</code>
+	 * evenly spaced indices of the search range are evaluated in a single batch
+	 * (see {@link AbstractCounterexample#testEffects(int...)}), narrowing down the
+	 * search range to a <code>1/k</code> fraction. Compared to a binary search, this
+	 * requires only <code>log_k(m)</code> instead of <code>log_2(m)</code> rounds, at
+	 * the cost of more queries.
+	 * 
+	 * @param acex the abstract counterexample
+	 * @param low the lower bound of the search range
+	 * @param high the upper bound of the search range
+	 * @param k the arity of the search, must be at least 2
+	 * @return an index <code>i</code> such that
+	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+	 */
+	public static int kArySearch(AbstractCounterexample acex, int low, int high, int k) {
+		if(k < 2) {
+			throw new IllegalArgumentException("Arity must be at least 2, is " + k);
+		}
+		
+		while(high - low > 1) {
+			int span = high - low;
+			int numProbes = Math.min(k - 1, span - 1);
+			
+			int[] probes = new int[numProbes];
+			for(int i = 0; i < numProbes; i++) {
+				probes[i] = low + (int)((long)span * (i + 1) / (numProbes + 1));
+			}
+			
+			int[] effects = acex.testEffects(probes);
+			int newLow = low;
+			for(int i = 0; i < numProbes; i++) {
+				if(effects[i] == 1) {
+					high = probes[i];
+					break;
+				}
+				newLow = probes[i];
+			}
+			low = newLow;
+		}
+		
+		return low;
+	}
+	
 	/**
 	 *  Search for a suffix index using a partition search
 	 * 
@@ -134,10 +486,7 @@ public class AnalysisAlgorithms {
 	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
 	 */
 	public static int partitionSearch(AbstractCounterexample acex, int low, int high) {
-		int span = high - low + 1;
-		double logSpan = Math.log(span)/Math.log(2);
-		
-		int step = (int)(span/logSpan);
+		int step = partitionStep(low, high);
 		
 		while(high - step > low) {
 			if(acex.testEffect(high - step) == 0) {
@@ -151,10 +500,7 @@ public class AnalysisAlgorithms {
 	}
 	
 	public static int partitionSearchReverse(AbstractCounterexample acex, int low, int high) {
-		int span = high - low + 1;
-		double logSpan = Math.log(span)/Math.log(2);
-		
-		int step = (int)(span/logSpan);
+		int step = partitionStep(low, high);
 		
 		while(low + step < high) {
 			if(acex.testEffect(low + step) == 1) {
@@ -169,7 +515,84 @@ public class AnalysisAlgorithms {
 	
 	
 	/**
-	 * Search for a suffix index using an eager binary search.
+	 * Search for a suffix index using a partition search. Other than
+	 * {@link #partitionSearch(AbstractCounterexample, int, int)}, all partition
+	 * boundaries are evaluated in a single batch (see
+	 * {@link AbstractCounterexample#testEffects(int...)}).
+	 * 
+	 * @param acex the abstract counterexample
+	 * @param low the lower bound of the search range
+	 * @param high the upper bound of the search range
+	 * @return an index <code>i</code> such that
+	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+	 */
+	public static int partitionSearchBatched(AbstractCounterexample acex, int low, int high) {
+		int step = partitionStep(low, high);
+		
+		int numProbes = (high - low - 1) / step;
+		int[] probes = new int[numProbes];
+		for(int i = 0; i < numProbes; i++) {
+			probes[i] = high - (i + 1) * step;
+		}
+		
+		int[] effects = acex.testEffects(probes);
+		for(int i = 0; i < numProbes; i++) {
+			if(effects[i] == 0) {
+				low = probes[i];
+				break;
+			}
+			high = probes[i];
+		}
+		
+		return binarySearch(acex, low, high);
+	}
+	
+	/**
+	 * Search for a suffix index using a partition search in ascending order, starting
+	 * at the lower bound of the search range. Other than
+	 * {@link #partitionSearchReverse(AbstractCounterexample, int, int)}, all partition
+	 * boundaries are evaluated in a single batch (see
+	 * {@link AbstractCounterexample#testEffects(int...)}).
+	 * 
+	 * @param acex the abstract counterexample
+	 * @param low the lower bound of the search range
+	 * @param high the upper bound of the search range
+	 * @return an index <code>i</code> such that
+	 * <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+	 */
+	public static int partitionSearchReverseBatched(AbstractCounterexample acex, int low, int high) {
+		int step = partitionStep(low, high);
+		
+		int numProbes = (high - low - 1) / step;
+		int[] probes = new int[numProbes];
+		for(int i = 0; i < numProbes; i++) {
+			probes[i] = low + (i + 1) * step;
+		}
+		
+		int[] effects = acex.testEffects(probes);
+		for(int i = 0; i < numProbes; i++) {
+			if(effects[i] == 1) {
+				high = probes[i];
+				break;
+			}
+			low = probes[i];
+		}
+		
+		return binarySearch(acex, low, high);
+	}
+	
+	private static int partitionStep(int low, int high) {
+		int span = high - low + 1;
+		double logSpan = Math.log(span)/Math.log(2);
+		
+		return (int)(span/logSpan);
+	}
+	
+	/**
+	 * Search for a suffix index using an eager binary search. Other than
+	 * {@link #binarySearch(AbstractCounterexample, int, int)}, the combined effect of
+	 * two adjacent indices is tested in each round, and the search terminates early
+	 * when a breakpoint is hit.
 	 * 
 	 * @param acex the abstract counterexample
 	 * @param low the lower bound of the search range
@@ -185,7 +608,12 @@ public class AnalysisAlgorithms {
 			
 			int val = acex.testCombinedEffect(mid);
 			if(val == 1) {
-				return mid;
+				// Both effect values are known now. If they descend, the breakpoint
+				// lies below mid
+				if(acex.testEffect(mid) == 0) {
+					return mid;
+				}
+				high = mid - 1;
 			}
 			else if(val == 0) {
 				low = mid + 1;
@@ -55,6 +55,51 @@ public abstract class Analyzers {
 		}
 	};
 	
+	/**
+	 * Analyzer that searches for a suffix index using a binary search that minimizes
+	 * the estimated total cost of the queries instead of their number (see
+	 * {@link AbstractCounterexample#estimateCost(int)}), assuming a uniform
+	 * distribution of the breakpoint.
+	 */
+	public static NamedAnalyzer COST_AWARE = new NamedAnalyzer("CostAware") {
+		@Override
+		public int analyzeAbstractCounterexample(AbstractCounterexample acex) {
+			return AnalysisAlgorithms.costAwareSearch(acex, 0, acex.getLength());
+		}
+	};
+	
+	/**
+	 * Creates an analyzer that searches for a suffix index using k-ary search, i.e.,
+	 * a generalization of Rivest&Schapire's algorithm that evaluates <code>k-1</code>
+	 * indices in parallel in each round.
+	 * 
+	 * @param k the arity of the search, must be at least 2
+	 * @return an analyzer performing a k-ary search
+	 */
+	public static NamedAnalyzer kArySearch(final int k) {
+		if(k < 2) {
+			throw new IllegalArgumentException("Arity must be at least 2, is " + k);
+		}
+		return new NamedAnalyzer("KAry-" + k) {
+			@Override
+			public int analyzeAbstractCounterexample(AbstractCounterexample acex) {
+				return AnalysisAlgorithms.kArySearch(acex, 0, acex.getLength(), k);
+			}
+		};
+	}
+	
+	/**
+	 * Creates an analyzer that adapts its search to the distribution of breakpoint
+	 * positions observed in previous analyses (see {@link AdaptiveAnalyzer}). As the
+	 * returned analyzer maintains state, it is not included in {@link #values()}, and
+	 * {@link #forName(String)} creates a new instance for every call.
+	 * 
+	 * @return a new adaptive analyzer
+	 */
+	public static NamedAnalyzer adaptive() {
+		return new AdaptiveAnalyzer();
+	}
+	
 	/**
 	 * Analyzer that searches for a suffix index using exponential search.
 	 */
@@ -72,6 +117,28 @@ public abstract class Analyzers {
 		}
 	};
 	
+	/**
+	 * Analyzer that searches for a suffix index using exponential search, evaluating
+	 * all probes of the exponential phase in a single batch.
+	 */
+	public static NamedAnalyzer EXPONENTIAL_BATCHED = new NamedAnalyzer("Exponential-Batched") {
+		@Override
+		public int analyzeAbstractCounterexample(AbstractCounterexample acex) {
+			return AnalysisAlgorithms.exponentialSearchBatched(acex, 0, acex.getLength());
+		}
+	};
+	
+	/**
+	 * Analyzer that searches for a suffix index using exponential search in ascending
+	 * order, evaluating all probes of the exponential phase in a single batch.
+	 */
+	public static NamedAnalyzer EXPONENTIAL_REV_BATCHED = new NamedAnalyzer("Exponential-Rev-Batched") {
+		@Override
+		public int analyzeAbstractCounterexample(AbstractCounterexample acex) {
+			return AnalysisAlgorithms.exponentialSearchReverseBatched(acex, 0, acex.getLength());
+		}
+	};
+	
 	/**
 	 * Analyzer that searches for a suffix index using partition search.
 	 */
@@ -89,6 +156,28 @@ public abstract class Analyzers {
 		}
 	};
 	
+	/**
+	 * Analyzer that searches for a suffix index using partition search, evaluating
+	 * all partition boundaries in a single batch.
+	 */
+	public static NamedAnalyzer PARTITION_BATCHED = new NamedAnalyzer("Partition-Batched") {
+		@Override
+		public int analyzeAbstractCounterexample(AbstractCounterexample acex) {
+			return AnalysisAlgorithms.partitionSearchBatched(acex, 0, acex.getLength());
+		}
+	};
+	
+	/**
+	 * Analyzer that searches for a suffix index using partition search in ascending
+	 * order, evaluating all partition boundaries in a single batch.
+	 */
+	public static NamedAnalyzer PARTITION_REV_BATCHED = new NamedAnalyzer("Partition-Rev-Batched") {
+		@Override
+		public int analyzeAbstractCounterexample(AbstractCounterexample acex) {
+			return AnalysisAlgorithms.partitionSearchReverseBatched(acex, 0, acex.getLength());
+		}
+	};
+	
 	
 	private static NamedAnalyzer[] VALUES = {
 		// LINEAR_ASC, // Removed because it is not interesting
@@ -108,6 +197,77 @@ public abstract class Analyzers {
 		PARTITION_REV
 	};
 	
+	// All registered analyzers (except for the adaptive one, which maintains state).
+	// Further k-ary analyzers can be obtained by name.
+	private static NamedAnalyzer[] REGISTERED = {
+		LINEAR_ASC,
+		LINEAR_DESC,
+		RIVEST_SCHAPIRE,
+		RIVEST_SCHAPIRE_EAGER,
+		COST_AWARE,
+		kArySearch(4),
+		kArySearch(16),
+		EXPONENTIAL,
+		EXPONENTIAL_REV,
+		EXPONENTIAL_BATCHED,
+		EXPONENTIAL_REV_BATCHED,
+		PARTITION,
+		PARTITION_REV,
+		PARTITION_BATCHED,
+		PARTITION_REV_BATCHED
+	};
+	
+	private static final String ADAPTIVE_NAME = "Adaptive";
+	private static final String KARY_PREFIX = "KAry-";
+	
+	/**
+	 * Retrieves the names of all registered analyzers, i.e., all analyzers that are
+	 * defined in this class, including the adaptive analyzer (see {@link #adaptive()})
+	 * and k-ary search for some values of <code>k</code>. Each of these names can be
+	 * passed to {@link #forName(String)}.
+	 * @return the names of all registered analyzers
+	 */
+	public static String[] names() {
+		String[] names = new String[REGISTERED.length + 1];
+		for(int i = 0; i < REGISTERED.length; i++) {
+			names[i] = REGISTERED[i].getName();
+		}
+		names[REGISTERED.length] = ADAPTIVE_NAME;
+		return names;
+	}
+	
+	/**
+	 * Retrieves the analyzer with the given name. Besides the names of all
+	 * registered analyzers (see {@link #names()}), names of the form
+	 * <code>KAry-&lt;k&gt;</code> are accepted for arbitrary arities <code>k</code>.
+	 * For analyzers that maintain state (i.e., the adaptive analyzer), a new instance
+	 * is created for every call, hence this method should be called once per
+	 * learning process.
+	 * 
+	 * @param name the name of the analyzer
+	 * @return the analyzer with the given name
+	 * @throws IllegalArgumentException if there is no analyzer with the given name
+	 */
+	public static NamedAnalyzer forName(String name) {
+		for(NamedAnalyzer analyzer : REGISTERED) {
+			if(analyzer.getName().equals(name)) {
+				return analyzer;
+			}
+		}
+		if(name.equals(ADAPTIVE_NAME)) {
+			return adaptive();
+		}
+		if(name.startsWith(KARY_PREFIX)) {
+			try {
+				return kArySearch(Integer.parseInt(name.substring(KARY_PREFIX.length())));
+			}
+			catch(NumberFormatException ex) {
+				// fall through
+			}
+		}
+		throw new IllegalArgumentException("Unknown analyzer " + name);
+	}
+	
 	/**
 	 * Retrieves an array of all enabled analyzers. The returned array
 	 * may be modified.
@@ -0,0 +1,128 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.learnlib.abstractcounterexamples.analyzers.AnalysisAlgorithms;
+import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
+import de.learnlib.abstractcounterexamples.analyzers.NamedAnalyzer;
+
+/**
+ * Benchmarks the counterexample analyzers (see {@link AnalysisAlgorithms}) in
+ * isolation, using {@link SyntheticAbstractCounterexample synthetic abstract counterexamples}.
+ * The analyzers are evaluated for different effect patterns:
+ * <ul>
+ * <li><code>single</code>: a single breakpoint at a relative position,</li>
+ * <li><code>multiple</code>: several evenly spaced breakpoints,</li>
+ * <li><code>adversarial</code>: a single breakpoint that is placed adaptively
+ * such that the number of queries is maximized.</li>
+ * </ul>
+ * Besides the time per analysis, the <code>queries</code> and <code>analyses</code>
+ * counters are reported; their ratio is the number of queries per analysis.
+ * Run with the GC profiler (<code>-prof gc</code>) to obtain the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyzerBenchmark {
+
+	/**
+	 * Name of the analyzer, see {@link Analyzers#forName(String)}. When run via
+	 * {@link BenchmarkMain}, this defaults to all registered analyzers instead. An adaptive analyzer
+	 * is used for all analyses of a trial, i.e., it adapts to the effect pattern.
+	 */
+	@Param({"RivestSchapire"})
+	public String analyzer;
+
+	@Param({"10", "100", "1000", "10000", "100000", "1000000"})
+	public int length;
+
+	@Param({"single", "multiple", "adversarial"})
+	public String pattern;
+
+	/**
+	 * Relative position of the breakpoint for the <code>single</code> pattern.
+	 */
+	@Param({"0.5"})
+	public double breakpointPosition;
+
+	/**
+	 * Number of breakpoints for the <code>multiple</code> pattern, must be odd.
+	 */
+	@Param({"9"})
+	public int numBreakpoints;
+
+	/**
+	 * Simulated cost of a single query, see {@link org.openjdk.jmh.infra.Blackhole#consumeCPU(long)}.
+	 */
+	@Param({"0", "1000"})
+	public long latencyTokens;
+
+	private NamedAnalyzer ceAnalyzer;
+
+	/**
+	 * Additional metrics, reported as totals per iteration.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Counters {
+		public long queries;
+		public long analyses;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			queries = 0L;
+			analyses = 0L;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		this.ceAnalyzer = Analyzers.forName(analyzer);
+		// Fail early on invalid parameters
+		createCounterexample();
+	}
+
+	@Benchmark
+	public int analyze(Counters counters) {
+		SyntheticAbstractCounterexample acex = createCounterexample();
+		int idx = ceAnalyzer.analyzeAbstractCounterexample(acex);
+		counters.queries += acex.getNumQueries();
+		counters.analyses++;
+		return idx;
+	}
+
+	private SyntheticAbstractCounterexample createCounterexample() {
+		switch(pattern) {
+		case "single":
+			int breakpoint = (int)(breakpointPosition * (length - 1));
+			return SyntheticAbstractCounterexample.singleBreakpoint(length, breakpoint, latencyTokens);
+		case "multiple":
+			return SyntheticAbstractCounterexample.multipleBreakpoints(length, numBreakpoints, latencyTokens);
+		case "adversarial":
+			return SyntheticAbstractCounterexample.adversarial(length, latencyTokens);
+		default:
+			throw new IllegalArgumentException("Unknown effect pattern " + pattern);
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
+
+/**
+ * Runs the benchmarks, accepting the same arguments as the JMH runner. Unless the
+ * analyzers are specified explicitly (e.g., <code>-p analyzer=RivestSchapire,KAry-4</code>),
+ * the benchmarks are run for all analyzers that are registered in {@link Analyzers}
+ * (see {@link Analyzers#names()}).
+ */
+public class BenchmarkMain {
+
+	private static final String ANALYZER_PARAM = "analyzer";
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		if(cmdOptions.shouldHelp()) {
+			cmdOptions.showHelp();
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+		if(!cmdOptions.getParameter(ANALYZER_PARAM).hasValue()) {
+			options.param(ANALYZER_PARAM, Analyzers.names());
+		}
+
+		Runner runner = new Runner(options.build());
+		if(cmdOptions.shouldList()) {
+			runner.list();
+			return;
+		}
+		runner.run();
+	}
+
+	/*
+	 * Constructor.
+	 */
+	private BenchmarkMain() {
+		throw new AssertionError("Class should not be instantiated");
+	}
+
+}
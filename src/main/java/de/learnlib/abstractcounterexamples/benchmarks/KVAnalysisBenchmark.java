@@ -0,0 +1,160 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.impl.Alphabets;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.learnlib.abstractcounterexamples.algorithms.kv.IntKearnsVaziraniDFA;
+import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
+import de.learnlib.abstractcounterexamples.analyzers.NamedAnalyzer;
+import de.learnlib.abstractcounterexamples.experiments.icgi2014.CompiledDFAOracle;
+
+/**
+ * Benchmarks counterexample analysis of the {@link IntKearnsVaziraniDFA} learner in
+ * isolation, i.e., the construction of the abstract counterexample, the analysis,
+ * and sifting prefixes of the counterexample into the discrimination tree. In
+ * contrast to {@link KVLearningBenchmark}, neither counterexample generation nor
+ * hypothesis refinement is part of the measured time: the hypothesis is learned
+ * once per trial (until it has a given fraction of the states of the target), and
+ * a fixed set of counterexamples for this hypothesis is analyzed over and over,
+ * without refining it.
+ * <p>
+ * Queries are answered by a {@link CompiledDFAOracle}, such that the measured time is
+ * dominated by the learner. The <code>queries</code> and <code>analyses</code>
+ * counters are reported as well. Run with the GC profiler (<code>-prof gc</code>)
+ * to obtain the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KVAnalysisBenchmark {
+
+	private static final int NUM_COUNTEREXAMPLES = 64;
+	private static final int MAX_ATTEMPTS = 1000000;
+	private static final int LEARNING_CE_LENGTH = 50;
+
+	@Param({"100", "500"})
+	public int numStates;
+
+	@Param({"10"})
+	public int alphabetSize;
+
+	@Param({"100", "1000"})
+	public int ceLength;
+
+	/**
+	 * Fraction of the states of the target that the hypothesis has when the
+	 * counterexamples are analyzed.
+	 */
+	@Param({"0.5"})
+	public double progress;
+
+	/**
+	 * Name of the analyzer, see {@link Analyzers#forName(String)}. When run via
+	 * {@link BenchmarkMain}, this defaults to all registered analyzers instead.
+	 */
+	@Param({"RivestSchapire"})
+	public String analyzer;
+
+	private IntKearnsVaziraniDFA learner;
+	private NamedAnalyzer ceAnalyzer;
+	private int[][] counterexamples;
+	private boolean[] outputs;
+	private int next;
+
+	/**
+	 * Additional metrics, reported as totals per iteration.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Counters {
+		public long queries;
+		public long analyses;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			queries = 0L;
+			analyses = 0L;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		CompactDFA<Integer> target = RandomAutomata.randomDFA(new Random(42L), numStates,
+				Alphabets.integers(0, alphabetSize - 1));
+		CompiledDFAOracle oracle = new CompiledDFAOracle(target);
+		Random random = new Random(4711L);
+
+		// The hypothesis does not depend on the benchmarked analyzer
+		this.learner = new IntKearnsVaziraniDFA(alphabetSize, oracle, Analyzers.RIVEST_SCHAPIRE, true);
+		learner.startLearning();
+		int minStates = (int)(progress * numStates);
+		while(learner.size() < minStates) {
+			int[] ce = generateCounterexample(random, oracle, LEARNING_CE_LENGTH);
+			learner.refineHypothesis(ce, accepts(oracle, ce));
+		}
+
+		this.counterexamples = new int[NUM_COUNTEREXAMPLES][];
+		this.outputs = new boolean[NUM_COUNTEREXAMPLES];
+		for(int i = 0; i < NUM_COUNTEREXAMPLES; i++) {
+			counterexamples[i] = generateCounterexample(random, oracle, ceLength);
+			outputs[i] = accepts(oracle, counterexamples[i]);
+		}
+
+		// Stateful analyzers adapt to the counterexamples over the whole trial
+		this.ceAnalyzer = Analyzers.forName(analyzer);
+	}
+
+	@Benchmark
+	public int analyze(Counters counters) {
+		int i = next;
+		next = (i + 1) % NUM_COUNTEREXAMPLES;
+		long queriesBefore = learner.getTotalCEQueries();
+		int idx = learner.analyzeCounterexample(counterexamples[i], outputs[i], ceAnalyzer);
+		counters.queries += learner.getTotalCEQueries() - queriesBefore;
+		counters.analyses++;
+		return idx;
+	}
+
+	private int[] generateCounterexample(Random random, CompiledDFAOracle oracle, int length) {
+		int[] word = new int[length];
+		for(int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			for(int j = 0; j < length; j++) {
+				word[j] = random.nextInt(alphabetSize);
+			}
+			if(learner.accepts(word) != accepts(oracle, word)) {
+				return word;
+			}
+		}
+		throw new IllegalStateException("No counterexample of length " + length + " found after "
+				+ MAX_ATTEMPTS + " attempts, the hypothesis has " + learner.size() + " states");
+	}
+
+	private static boolean accepts(CompiledDFAOracle oracle, int[] word) {
+		return oracle.isAccepting(oracle.getSuccessor(oracle.getInitialState(), word, 0, word.length));
+	}
+
+}
@@ -0,0 +1,121 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.learnlib.abstractcounterexamples.algorithms.kv.KearnsVaziraniDFA;
+import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
+import de.learnlib.abstractcounterexamples.analyzers.NamedAnalyzer;
+import de.learnlib.oracles.DefaultQuery;
+import de.learnlib.oracles.SimulatorOracle.DFASimulatorOracle;
+
+/**
+ * Benchmarks a complete learning process of the {@link KearnsVaziraniDFA} learner
+ * with random counterexamples of a fixed length. With long counterexamples, the
+ * learning process is dominated by counterexample analysis, i.e., by sifting
+ * prefixes of the counterexample into the discrimination tree.
+ * <p>
+ * Run with the GC profiler (<code>-prof gc</code>) to obtain the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KVLearningBenchmark {
+	
+	@Param({"100", "500"})
+	public int numStates;
+	
+	@Param({"10"})
+	public int alphabetSize;
+	
+	@Param({"100", "500"})
+	public int ceLength;
+	
+	/**
+	 * Name of the analyzer, see {@link Analyzers#forName(String)}. When run via
+	 * {@link BenchmarkMain}, this defaults to all registered analyzers instead.
+	 */
+	@Param({"RivestSchapire"})
+	public String analyzer;
+	
+	@Param({"false", "true"})
+	public boolean reuseEffectValues;
+	
+	private CompactDFA<Integer> target;
+	
+	@Setup
+	public void setUp() {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, alphabetSize - 1);
+		this.target = RandomAutomata.randomDFA(new Random(42L), numStates, alphabet);
+		// Fail early on invalid parameters
+		Analyzers.forName(analyzer);
+	}
+	
+	@Benchmark
+	public int learn() {
+		Random random = new Random(4711L);
+		Alphabet<Integer> alphabet = target.getInputAlphabet();
+		DFASimulatorOracle<Integer> oracle = new DFASimulatorOracle<>(target);
+		// Analyzers that maintain state are created anew for every learning process
+		NamedAnalyzer ceAnalyzer = Analyzers.forName(analyzer);
+		
+		KearnsVaziraniDFA<Integer> learner = new KearnsVaziraniDFA<>(alphabet, oracle, ceAnalyzer, true, reuseEffectValues);
+		learner.startLearning();
+		
+		DefaultQuery<Integer, Boolean> ceQuery;
+		while((ceQuery = generateCounterexample(random, target, learner.getHypothesisModel(), ceLength)) != null) {
+			learner.refineHypothesis(ceQuery);
+		}
+		
+		return learner.getHypothesisModel().size();
+	}
+	
+	private static <I> DefaultQuery<I,Boolean>
+	generateCounterexample(Random random, CompactDFA<I> target, DFA<?,I> hypothesis, int ceLength) {
+		Alphabet<I> alphabet = target.getInputAlphabet();
+		
+		if(Automata.findSeparatingWord(target, hypothesis, alphabet) == null) {
+			return null;
+		}
+		
+		Word<I> word;
+		
+		do {
+			WordBuilder<I> wb = new WordBuilder<>();
+			for(int i = 0; i < ceLength; i++) {
+				wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+			}
+			word = wb.toWord();
+		} while(target.accepts(word) == hypothesis.accepts(word));
+		
+		return new DefaultQuery<>(word, target.computeOutput(word));
+	}
+
+}
@@ -0,0 +1,133 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.benchmarks;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.learnlib.abstractcounterexamples.AbstractCounterexample;
+
+/**
+ * Abstract counterexample with synthetic effect values, i.e., without any learner,
+ * hypothesis or oracle involved. The cost of computing an effect value can be
+ * simulated by consuming a configurable amount of CPU time per query.
+ * <p>
+ * Instances are not reusable, as effect values are memoized (and the
+ * {@link #adversarial(int, long) adversarial} abstract counterexample adapts to the
+ * queries it receives).
+ */
+public abstract class SyntheticAbstractCounterexample extends AbstractCounterexample {
+
+	private final long latencyTokens;
+
+	/**
+	 * Constructor.
+	 * @param m length of the counterexample
+	 * @param latencyTokens the amount of CPU time to consume for each effect value
+	 * (see {@link Blackhole#consumeCPU(long)})
+	 */
+	public SyntheticAbstractCounterexample(int m, long latencyTokens) {
+		super(m);
+		this.latencyTokens = latencyTokens;
+	}
+
+	/**
+	 * Creates an abstract counterexample with a single breakpoint.
+	 *
+	 * @param m length of the counterexample
+	 * @param breakpoint the index of the breakpoint, i.e., the effect value is 0 up to
+	 * and including this index, and 1 afterwards
+	 * @param latencyTokens the amount of CPU time to consume per query
+	 * @return the abstract counterexample
+	 */
+	public static SyntheticAbstractCounterexample singleBreakpoint(int m, final int breakpoint, long latencyTokens) {
+		if(breakpoint < 0 || breakpoint >= m) {
+			throw new IllegalArgumentException("Breakpoint " + breakpoint + " out of range for length " + m);
+		}
+		return new SyntheticAbstractCounterexample(m, latencyTokens) {
+			@Override
+			protected int effect(int index) {
+				return (index <= breakpoint) ? 0 : 1;
+			}
+		};
+	}
+
+	/**
+	 * Creates an abstract counterexample with several evenly spaced breakpoints. The
+	 * effect values alternate between segments of (roughly) equal length.
+	 *
+	 * @param m length of the counterexample
+	 * @param numBreakpoints the number of breakpoints, which must be odd and must not
+	 * exceed <code>m</code>
+	 * @param latencyTokens the amount of CPU time to consume per query
+	 * @return the abstract counterexample
+	 */
+	public static SyntheticAbstractCounterexample multipleBreakpoints(final int m, int numBreakpoints, long latencyTokens) {
+		if(numBreakpoints % 2 == 0 || numBreakpoints < 1 || numBreakpoints > m) {
+			throw new IllegalArgumentException("Invalid number of breakpoints " + numBreakpoints
+					+ " for length " + m);
+		}
+		final int numSegments = numBreakpoints + 1;
+		return new SyntheticAbstractCounterexample(m, latencyTokens) {
+			@Override
+			protected int effect(int index) {
+				return (int)(((long)index * numSegments / (m + 1)) % 2);
+			}
+		};
+	}
+
+	/**
+	 * Creates an adversarial abstract counterexample with a single breakpoint. The
+	 * position of the breakpoint is not fixed beforehand, but chosen adaptively:
+	 * every answer keeps the larger part of the range of possible breakpoints,
+	 * which forces every analyzer to make as many queries as possible.
+	 *
+	 * @param m length of the counterexample
+	 * @param latencyTokens the amount of CPU time to consume per query
+	 * @return the abstract counterexample
+	 */
+	public static SyntheticAbstractCounterexample adversarial(final int m, long latencyTokens) {
+		return new SyntheticAbstractCounterexample(m, latencyTokens) {
+			// The breakpoint is known to be in the range [low, high)
+			private int low = 0;
+			private int high = m;
+
+			@Override
+			protected int effect(int index) {
+				if(index <= low) {
+					return 0;
+				}
+				if(index >= high) {
+					return 1;
+				}
+				if(index - low > high - index) {
+					high = index;
+					return 1;
+				}
+				low = index;
+				return 0;
+			}
+		};
+	}
+
+	/**
+	 * Determines the effect value for the given index.
+	 *
+	 * @param index the index
+	 * @return the effect value, either 0 or 1
+	 */
+	protected abstract int effect(int index);
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.learnlib.abstractcounterexamples.AbstractCounterexample#doComputeEffect(int)
+	 */
+	@Override
+	protected int doComputeEffect(int index) {
+		if(latencyTokens > 0) {
+			Blackhole.consumeCPU(latencyTokens);
+		}
+		return effect(index);
+	}
+
+}
@@ -30,6 +30,7 @@ public class AnalyzerWrapper implements LocalSuffixFinder<Object, Object> {
 	private final NamedAnalyzer analyzer;
 	private final boolean reduce;
 	private final AtomicLong totalQueries = new AtomicLong(0L);
+	private final AtomicLong totalQuerySymbols = new AtomicLong(0L);
 	private final AtomicLong totalSuffixLength = new AtomicLong(0L);
 	private final AtomicInteger numCes = new AtomicInteger(0);
 	
@@ -83,6 +84,7 @@ public class AnalyzerWrapper implements LocalSuffixFinder<Object, Object> {
 		int suffixLength = acex.getLength() - idx;
 		
 		totalQueries.addAndGet(acex.getNumQueries());
+		totalQuerySymbols.addAndGet(ptAcex.getTotalQuerySymbols());
 		totalSuffixLength.addAndGet(suffixLength);
 		numCes.incrementAndGet();
 		
@@ -101,6 +103,16 @@ public class AnalyzerWrapper implements LocalSuffixFinder<Object, Object> {
 		return totalQueries.get();
 	}
 	
+	/**
+	 * Retrieves the total number of symbols in the membership queries posed during
+	 * counterexample analysis, i.e., the sum of their lengths (see
+	 * {@link PrefixTransformationAbstractCounterexample#getTotalQuerySymbols()}).
+	 * @return the total number of query symbols
+	 */
+	public long getTotalQuerySymbols() {
+		return totalQuerySymbols.get();
+	}
+	
 	/**
 	 * Retrieves the average length of counterexample suffixes that were returned.
 	 * @return the average suffix length.
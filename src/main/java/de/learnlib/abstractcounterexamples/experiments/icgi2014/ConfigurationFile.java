@@ -0,0 +1,92 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Stores the configuration of an experiment in its results directory, such that an
+ * interrupted experiment is only resumed with the same configuration. Otherwise, the
+ * results of the resumed run would silently be mixed with results obtained for
+ * different targets, counterexample lengths, or job seeds.
+ * <p>
+ * The configuration is stored as a list of <code>KEY=value</code> lines.
+ */
+public class ConfigurationFile {
+
+	private static final String CONFIG_FILE = "config";
+
+	/**
+	 * Checks the given configuration against the one stored in a results directory.
+	 * If the directory contains no stored configuration (i.e., the experiment is
+	 * started, not resumed), the configuration is stored.
+	 *
+	 * @param rootDir the results directory
+	 * @param config the configuration, as a map from keys to values. All settings
+	 * that affect the results must be included
+	 * @param resumed whether the results directory already contains results of a
+	 * previous run
+	 * @throws IOException if the configuration could not be read or stored, if it
+	 * differs from the stored configuration, or if a previous run did not store its
+	 * configuration
+	 */
+	public static void check(File rootDir, Map<String,String> config, boolean resumed) throws IOException {
+		File configFile = new File(rootDir, CONFIG_FILE);
+		if(!configFile.exists()) {
+			if(resumed) {
+				throw new IOException("Results in " + rootDir + " have no stored configuration, cannot resume. "
+						+ "Use a different EXPERIMENT_ID");
+			}
+			store(configFile, config);
+			return;
+		}
+
+		Properties stored = new Properties();
+		try(Reader reader = Files.newBufferedReader(configFile.toPath(), StandardCharsets.UTF_8)) {
+			stored.load(reader);
+		}
+
+		StringBuilder mismatches = new StringBuilder();
+		for(Map.Entry<String,String> e : config.entrySet()) {
+			String storedValue = stored.getProperty(e.getKey());
+			if(!e.getValue().equals(storedValue)) {
+				mismatches.append("\n  ").append(e.getKey()).append(" = ").append(e.getValue())
+					.append(" (stored: ").append(storedValue).append(')');
+			}
+		}
+		for(String key : stored.stringPropertyNames()) {
+			if(!config.containsKey(key)) {
+				mismatches.append("\n  ").append(key).append(" is unset (stored: ")
+					.append(stored.getProperty(key)).append(')');
+			}
+		}
+		if(mismatches.length() > 0) {
+			throw new IOException("Results in " + rootDir + " were created with a different configuration, "
+					+ "cannot resume:" + mismatches);
+		}
+	}
+
+	private static void store(File configFile, Map<String,String> config) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for(Map.Entry<String,String> e : config.entrySet()) {
+			sb.append(e.getKey()).append('=').append(e.getValue()).append('\n');
+		}
+		configFile.getParentFile().mkdirs();
+		Files.write(configFile.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/*
+	 * Constructor.
+	 */
+	private ConfigurationFile() {
+		throw new AssertionError("Class should not be instantiated");
+	}
+
+}
@@ -0,0 +1,524 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import de.learnlib.abstractcounterexamples.algorithms.kv.IntKearnsVaziraniDFA.HypothesisListener;
+import de.learnlib.oracles.DefaultQuery;
+
+/**
+ * Generates random counterexamples of a fixed length, distinguishing a hypothesis from
+ * a target DFA. The counterexamples are sampled uniformly among all words of the given
+ * length on which target and hypothesis disagree. This is the same distribution as
+ * obtained by repeatedly sampling random words until one of them is a counterexample,
+ * but does not require a (potentially very large) number of attempts.
+ * <p>
+ * As long as counterexamples are frequent, sampling random words is cheaper than
+ * anything else. Hence, a small number of random words is tried first. Only if none of
+ * them is a counterexample, a counterexample is constructed directly. As both steps
+ * yield a uniformly distributed counterexample, so does their combination.
+ * <p>
+ * The generator works on the product of target and hypothesis. For every product state <code>p</code> and length
+ * <code>l</code>, the value <code>f<sub>l</sub>(p)</code> is proportional to the
+ * number of words of length <code>l</code> that lead from <code>p</code> to a state
+ * where target and hypothesis disagree. A counterexample is then constructed
+ * symbol by symbol, choosing each symbol with a probability proportional to the
+ * value of the successor state for the remaining length. To limit the memory
+ * consumption, only every <code>sqrt(L)</code>-th vector is stored, and the vectors
+ * in between are recomputed block-wise during sampling. Furthermore, as the (normalized)
+ * vectors usually converge quickly, they are no longer computed once they do not
+ * change anymore.
+ * <p>
+ * Successive hypotheses usually only differ by a few states and transitions. The
+ * generator is therefore meant to be used for a single learning process, and is
+ * notified about every change of the hypothesis (see {@link HypothesisListener}).
+ * The product is maintained incrementally: only product transitions whose hypothesis
+ * transition has changed are recomputed, and only product states that have become
+ * reachable through them are explored. Product states that are no longer reachable
+ * are removed before sampling, in a single pass over the product that costs as much as
+ * one step of the recurrence computing the vectors <code>f<sub>l</sub></code>.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * @param <I> input symbol type
+ */
+public class CounterexampleGenerator<I> implements HypothesisListener {
+
+	// Maximum difference between two subsequent (normalized) vectors such that they
+	// are considered equal
+	private static final double CONVERGENCE_THRESHOLD = 1e-12;
+	
+	private static final int MAX_RANDOM_ATTEMPTS = 8;
+	
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final Alphabet<I> alphabet;
+	private final CompactDFA<I> target;
+	private final int[] targetSuccessors;
+	private final boolean[] targetAccepting;
+
+	// Copy of the hypothesis, as reported to this generator. The rows of the first
+	// numHypStates states are reflected in the product, all transitions of these
+	// states that have changed since the last update of the product are recorded in
+	// changedTransitions (as state * alphabetSize + symIdx)
+	private int numHypStates;
+	private int numReportedStates;
+	private int[] hypSuccessors;
+	private boolean[] hypAccepting;
+	private int[] changedTransitions;
+	private int numChangedTransitions;
+
+	// The product of target and hypothesis, which is maintained across several
+	// hypotheses. Product states are identified by their index, the product state
+	// with index 0 is the initial state. Product states that are no longer reachable
+	// are only removed by compactProduct().
+	private int numPairs;
+	private int[] pairIds;
+	private int[] pairTargets;
+	private int[] pairHyps;
+	private int[] successors;
+	// Linked lists of the product states with a given hypothesis state
+	private int[] hypPairHeads;
+	private int[] pairHypNexts;
+
+	/**
+	 * Constructor.
+	 * @param target the target DFA
+	 */
+	public CounterexampleGenerator(CompactDFA<I> target) {
+		this.alphabet = target.getInputAlphabet();
+		this.target = target;
+
+		int numStates = target.size();
+		int alphabetSize = alphabet.size();
+		this.targetSuccessors = new int[numStates * alphabetSize];
+		this.targetAccepting = new boolean[numStates];
+		for(int s = 0; s < numStates; s++) {
+			targetAccepting[s] = target.isAccepting(s);
+			for(int i = 0; i < alphabetSize; i++) {
+				targetSuccessors[s * alphabetSize + i] = target.getIntSuccessor(s, alphabet.getSymbol(i));
+			}
+		}
+
+		initProduct();
+	}
+
+	/**
+	 * Constructor. Creates a generator for the same target as the given generator,
+	 * sharing its (immutable) copy of the target's transition function, for use in a
+	 * different learning process. The new generator can be used concurrently with the
+	 * given one.
+	 * @param other the generator whose target to use
+	 */
+	public CounterexampleGenerator(CounterexampleGenerator<I> other) {
+		this.alphabet = other.alphabet;
+		this.target = other.target;
+		this.targetSuccessors = other.targetSuccessors;
+		this.targetAccepting = other.targetAccepting;
+
+		initProduct();
+	}
+
+	private void initProduct() {
+		int alphabetSize = alphabet.size();
+		this.hypSuccessors = new int[0];
+		this.hypAccepting = new boolean[0];
+		this.changedTransitions = new int[INITIAL_CAPACITY];
+		this.hypPairHeads = new int[0];
+		this.pairIds = new int[0];
+		this.pairTargets = new int[INITIAL_CAPACITY];
+		this.pairHyps = new int[INITIAL_CAPACITY];
+		this.pairHypNexts = new int[INITIAL_CAPACITY];
+		this.successors = new int[INITIAL_CAPACITY * alphabetSize];
+	}
+
+	@Override
+	public void stateAdded(int state, boolean accepting) {
+		ensureHypCapacity(state + 1);
+		hypAccepting[state] = accepting;
+		if(state >= numReportedStates) {
+			numReportedStates = state + 1;
+		}
+	}
+
+	@Override
+	public void transitionSet(int state, int symIdx, int succ) {
+		ensureHypCapacity(Math.max(state, succ) + 1);
+		int idx = state * alphabet.size() + symIdx;
+		if(hypSuccessors[idx] == succ) {
+			return;
+		}
+		hypSuccessors[idx] = succ;
+		// The rows of states not yet reflected in the product are read completely
+		// during the next update
+		if(state < numHypStates) {
+			if(numChangedTransitions == changedTransitions.length) {
+				changedTransitions = Arrays.copyOf(changedTransitions, numChangedTransitions * 2);
+			}
+			changedTransitions[numChangedTransitions++] = idx;
+		}
+	}
+
+	/**
+	 * Generates a random counterexample of the given length. If target and hypothesis
+	 * are not equivalent, but there is no counterexample of the given length, a shortest
+	 * counterexample is returned instead.
+	 * <p>
+	 * All states and transitions of the hypothesis must have been reported to this
+	 * generator, with the initial state being state <code>0</code>. The acceptance of a
+	 * state must not change after it has been reported.
+	 *
+	 * @param random the random number generator to use
+	 * @param hypothesis the hypothesis
+	 * @param length the length of the counterexample
+	 * @return a counterexample, or {@code null} if target and hypothesis are equivalent
+	 */
+	public DefaultQuery<I,Boolean> generateCounterexample(Random random, DFA<?,I> hypothesis, int length) {
+		assert hypothesis.size() == numReportedStates;
+
+		for(int i = 0; i < MAX_RANDOM_ATTEMPTS; i++) {
+			Word<I> word = randomWord(random, length);
+			boolean output = target.accepts(word);
+			if(output != hypothesis.accepts(word)) {
+				return new DefaultQuery<>(word, output);
+			}
+		}
+		
+		updateProduct();
+		Product product = compactProduct();
+		if(!product.hasDisagreement) {
+			return null;
+		}
+
+		Word<I> word = sample(product, random, length);
+		if(word == null) {
+			word = Automata.findSeparatingWord(target, hypothesis, alphabet);
+		}
+
+		return new DefaultQuery<>(word, target.computeOutput(word));
+	}
+
+	private Word<I> randomWord(Random random, int length) {
+		int alphabetSize = alphabet.size();
+		WordBuilder<I> wb = new WordBuilder<>(length);
+		for(int i = 0; i < length; i++) {
+			wb.append(alphabet.getSymbol(random.nextInt(alphabetSize)));
+		}
+		return wb.toWord();
+	}
+
+	/**
+	 * A view on the product of target and hypothesis. Product state <code>0</code> is
+	 * the initial state.
+	 */
+	private static final class Product {
+		private final int numStates;
+		private final int[] successors;
+		private final boolean[] disagree;
+		private final boolean hasDisagreement;
+
+		public Product(int numStates, int[] successors, boolean[] disagree, boolean hasDisagreement) {
+			this.numStates = numStates;
+			this.successors = successors;
+			this.disagree = disagree;
+			this.hasDisagreement = hasDisagreement;
+		}
+	}
+
+	/**
+	 * Updates the product of target and hypothesis to reflect the changes of the
+	 * hypothesis reported since the last update. Only the product transitions whose
+	 * hypothesis transition has changed are recomputed, and only product states that
+	 * have become reachable through them are explored. Hence, the cost is proportional
+	 * to the size of the change, not to the size of the product.
+	 */
+	private void updateProduct() {
+		int alphabetSize = alphabet.size();
+
+		int firstNew = numPairs;
+		if(numPairs == 0) {
+			addPair(target.getIntInitialState(), 0);
+		}
+
+		for(int j = 0; j < numChangedTransitions; j++) {
+			int idx = changedTransitions[j];
+			int hypState = idx / alphabetSize;
+			int symIdx = idx % alphabetSize;
+			for(int p = hypPairHeads[hypState]; p != -1; p = pairHypNexts[p]) {
+				// Pairs created during this update are expanded completely below
+				if(p < firstNew) {
+					expandTransition(p, symIdx);
+				}
+			}
+		}
+		numChangedTransitions = 0;
+		numHypStates = numReportedStates;
+
+		for(int p = firstNew; p < numPairs; p++) {
+			for(int i = 0; i < alphabetSize; i++) {
+				expandTransition(p, i);
+			}
+		}
+	}
+
+	/**
+	 * Removes all product states that are no longer reachable from the initial
+	 * state, and renumbers the remaining ones (preserving their order).
+	 */
+	private Product compactProduct() {
+		int alphabetSize = alphabet.size();
+		int numTargetStates = targetAccepting.length;
+
+		// newIds[p] is -1 for product states that have not been reached (yet)
+		int[] newIds = new int[numPairs];
+		Arrays.fill(newIds, -1);
+		int[] stack = new int[numPairs];
+		int stackSize = 0;
+		int numReachable = 1;
+		newIds[0] = 0;
+		stack[stackSize++] = 0;
+		while(stackSize > 0) {
+			int p = stack[--stackSize];
+			int base = p * alphabetSize;
+			for(int i = 0; i < alphabetSize; i++) {
+				int succ = successors[base + i];
+				if(newIds[succ] == -1) {
+					newIds[succ] = 0;
+					numReachable++;
+					stack[stackSize++] = succ;
+				}
+			}
+		}
+
+		if(numReachable < numPairs) {
+			Arrays.fill(hypPairHeads, 0, numHypStates, -1);
+			int q = 0;
+			for(int p = 0; p < numPairs; p++) {
+				if(newIds[p] == -1) {
+					pairIds[pairHyps[p] * numTargetStates + pairTargets[p]] = -1;
+				}
+				else {
+					newIds[p] = q++;
+				}
+			}
+			// New ids never exceed old ones, hence the arrays can be compacted in place
+			for(int p = 0; p < numPairs; p++) {
+				q = newIds[p];
+				if(q == -1) {
+					continue;
+				}
+				int targetState = pairTargets[p];
+				int hypState = pairHyps[p];
+				pairTargets[q] = targetState;
+				pairHyps[q] = hypState;
+				pairIds[hypState * numTargetStates + targetState] = q;
+				pairHypNexts[q] = hypPairHeads[hypState];
+				hypPairHeads[hypState] = q;
+				for(int i = 0; i < alphabetSize; i++) {
+					successors[q * alphabetSize + i] = newIds[successors[p * alphabetSize + i]];
+				}
+			}
+			numPairs = numReachable;
+		}
+
+		boolean[] disagree = new boolean[numPairs];
+		boolean hasDisagreement = false;
+		for(int p = 0; p < numPairs; p++) {
+			disagree[p] = (targetAccepting[pairTargets[p]] != hypAccepting[pairHyps[p]]);
+			hasDisagreement |= disagree[p];
+		}
+
+		return new Product(numPairs, successors, disagree, hasDisagreement);
+	}
+
+	private void ensureHypCapacity(int capacity) {
+		int oldCapacity = hypAccepting.length;
+		if(capacity <= oldCapacity) {
+			return;
+		}
+		capacity = Math.max(capacity, oldCapacity * 2);
+		int alphabetSize = alphabet.size();
+		int numTargetStates = targetAccepting.length;
+
+		hypAccepting = Arrays.copyOf(hypAccepting, capacity);
+		hypSuccessors = Arrays.copyOf(hypSuccessors, capacity * alphabetSize);
+		// Transitions that have not been reported yet
+		Arrays.fill(hypSuccessors, oldCapacity * alphabetSize, capacity * alphabetSize, -1);
+		hypPairHeads = Arrays.copyOf(hypPairHeads, capacity);
+		Arrays.fill(hypPairHeads, oldCapacity, capacity, -1);
+		// The pair table is indexed by hypState * numTargetStates + targetState,
+		// hence existing entries remain valid
+		pairIds = Arrays.copyOf(pairIds, capacity * numTargetStates);
+		Arrays.fill(pairIds, oldCapacity * numTargetStates, capacity * numTargetStates, -1);
+	}
+
+	/**
+	 * (Re-)computes a single successor of a product state, adding a new product state
+	 * if necessary.
+	 */
+	private void expandTransition(int pair, int symIdx) {
+		int alphabetSize = alphabet.size();
+		int targetSucc = targetSuccessors[pairTargets[pair] * alphabetSize + symIdx];
+		int hypSucc = hypSuccessors[pairHyps[pair] * alphabetSize + symIdx];
+		assert hypSucc != -1 : "Transition has not been reported";
+		int succ = pairIds[hypSucc * targetAccepting.length + targetSucc];
+		if(succ == -1) {
+			succ = addPair(targetSucc, hypSucc);
+		}
+		successors[pair * alphabetSize + symIdx] = succ;
+	}
+
+	private int addPair(int targetState, int hypState) {
+		if(numPairs == pairTargets.length) {
+			int capacity = numPairs * 2;
+			pairTargets = Arrays.copyOf(pairTargets, capacity);
+			pairHyps = Arrays.copyOf(pairHyps, capacity);
+			pairHypNexts = Arrays.copyOf(pairHypNexts, capacity);
+			successors = Arrays.copyOf(successors, capacity * alphabet.size());
+		}
+		int pair = numPairs++;
+		pairIds[hypState * targetAccepting.length + targetState] = pair;
+		pairTargets[pair] = targetState;
+		pairHyps[pair] = hypState;
+		pairHypNexts[pair] = hypPairHeads[hypState];
+		hypPairHeads[hypState] = pair;
+		return pair;
+	}
+
+	/**
+	 * Samples a word of the given length leading from the initial product state to a
+	 * state where target and hypothesis disagree.
+	 *
+	 * @return the sampled word, or {@code null} if there is no such word
+	 */
+	private Word<I> sample(Product product, Random random, int length) {
+		int alphabetSize = alphabet.size();
+		int blockSize = Math.max(1, (int)Math.ceil(Math.sqrt(length)));
+
+		// checkpoints[c] holds f_{c * blockSize}
+		double[][] checkpoints = new double[length / blockSize + 1][];
+		double[] curr = new double[product.numStates];
+		for(int p = 0; p < product.numStates; p++) {
+			curr[p] = product.disagree[p] ? 1.0 : 0.0;
+		}
+		checkpoints[0] = curr;
+		// f_l equals f_{convergedLength} for all l >= convergedLength
+		int convergedLength = length;
+		for(int l = 1; l <= length; l++) {
+			double[] next = step(product, curr);
+			if(converged(curr, next)) {
+				convergedLength = l - 1;
+				break;
+			}
+			curr = next;
+			if(l % blockSize == 0) {
+				checkpoints[l / blockSize] = curr;
+			}
+		}
+		double[] stationary = curr;
+
+		if(stationary[0] == 0.0) {
+			return null;
+		}
+
+		double[][] block = new double[blockSize][];
+		int currBlock = -1;
+
+		Object[] symbols = new Object[length];
+		int state = 0;
+		double[] weights = new double[alphabetSize];
+		for(int i = 0; i < length; i++) {
+			// f_{remaining} for the successor states is required
+			int remaining = length - i - 1;
+			double[] f;
+			if(remaining >= convergedLength) {
+				f = stationary;
+			}
+			else {
+				int blockIdx = remaining / blockSize;
+				if(blockIdx != currBlock) {
+					block[0] = checkpoints[blockIdx];
+					for(int j = 1; j < blockSize; j++) {
+						block[j] = step(product, block[j-1]);
+					}
+					currBlock = blockIdx;
+				}
+				f = block[remaining % blockSize];
+			}
+
+			double total = 0.0;
+			for(int j = 0; j < alphabetSize; j++) {
+				weights[j] = f[product.successors[state * alphabetSize + j]];
+				total += weights[j];
+			}
+			double r = random.nextDouble() * total;
+			int symIdx = -1;
+			for(int j = 0; j < alphabetSize; j++) {
+				if(weights[j] > 0.0) {
+					// Guard against rounding errors, never choose a symbol of weight 0
+					symIdx = j;
+					r -= weights[j];
+					if(r < 0.0) {
+						break;
+					}
+				}
+			}
+
+			symbols[i] = alphabet.getSymbol(symIdx);
+			state = product.successors[state * alphabetSize + symIdx];
+		}
+
+		assert product.disagree[state];
+
+		@SuppressWarnings("unchecked")
+		I[] symArray = (I[])symbols;
+		return Word.fromArray(symArray, 0, length);
+	}
+
+	private static boolean converged(double[] prev, double[] next) {
+		for(int p = 0; p < prev.length; p++) {
+			if(Math.abs(prev[p] - next[p]) > CONVERGENCE_THRESHOLD) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes <code>f<sub>l+1</sub></code> from <code>f<sub>l</sub></code>. As only
+	 * the ratios between the values are relevant, the result is normalized such that its
+	 * maximum is 1, which avoids underflows for long words.
+	 */
+	private double[] step(Product product, double[] prev) {
+		int alphabetSize = alphabet.size();
+		double[] next = new double[product.numStates];
+		double max = 0.0;
+		for(int p = 0; p < product.numStates; p++) {
+			double sum = 0.0;
+			int base = p * alphabetSize;
+			for(int j = 0; j < alphabetSize; j++) {
+				sum += prev[product.successors[base + j]];
+			}
+			next[p] = sum;
+			if(sum > max) {
+				max = sum;
+			}
+		}
+		if(max > 0.0) {
+			for(int p = 0; p < product.numStates; p++) {
+				next[p] /= max;
+			}
+		}
+		return next;
+	}
+
+}
@@ -3,26 +3,21 @@
  */
 package de.learnlib.abstractcounterexamples.experiments.icgi2014;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
-import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
-import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
-import net.automatalib.words.Word;
-import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
 import de.learnlib.abstractcounterexamples.analyzers.NamedAnalyzer;
@@ -31,7 +26,6 @@ import de.learnlib.cache.dfa.DFACacheOracle;
 import de.learnlib.cache.dfa.DFACaches;
 import de.learnlib.oracles.DefaultQuery;
 import de.learnlib.oracles.CounterOracle.DFACounterOracle;
-import de.learnlib.oracles.SimulatorOracle.DFASimulatorOracle;
 
 public class Experiment {
 	
@@ -56,41 +50,73 @@ public class Experiment {
 	
 	private final File outputDir;
 	private final CompactDFA<Integer> dfa;
-	private final Random random;
+	// Per-instance data that is shared by all jobs
+	private final CompiledDFAOracle compiledTarget;
+	private final CounterexampleGenerator<Integer> ceGeneratorPrototype;
+	private final long seed;
+	private final int instance;
+	private final ResultAggregator aggregator;
+	private final boolean commonRandomNumbers;
+	private final String[] analyzerNames;
 	private final boolean reduceCounterexamples;
 	
+	// Results that have not been written to the result file yet are lost when the
+	// experiment is interrupted, hence blocks should not be too large
+	private static final int RESULT_BLOCK_RECORDS = 16;
+	
+	/**
+	 * Orders jobs by descending counterexample length, i.e., jobs which are expected
+	 * to take the longest are executed first.
+	 */
+	private static final Comparator<Job> LONGEST_FIRST = new Comparator<Job>() {
+		@Override
+		public int compare(Job j1, Job j2) {
+			return Integer.compare(j2.ceLength, j1.ceLength);
+		}
+	};
+	
 	private class Job implements Callable<Void> {
 		
-		private final NamedAnalyzer analyzer;
+		private final String analyzerName;
+		private final ResultWriter writer;
 		private final int ceLength;
-		//private final int id;
-		private final Random random;
-		private final Writer writer;
+		private final int repeat;
+		private final long seed;
 		
-		public Job(NamedAnalyzer analyzer, int ceLength, Random random, Writer writer) {
-			this.analyzer = analyzer;
-			this.ceLength = ceLength;
-			this.random = random;
+		public Job(String analyzerName, ResultWriter writer, int ceLength, int repeat, long seed) {
+			this.analyzerName = analyzerName;
 			this.writer = writer;
+			this.ceLength = ceLength;
+			this.repeat = repeat;
+			this.seed = seed;
 		}
 		
 		@Override
 		public Void call() throws Exception {
-			AnalyzerWrapper wrapper = new AnalyzerWrapper(analyzer, reduceCounterexamples);
+			Random random = new Random(seed);
 			
-			DFASimulatorOracle<Integer> oracle = new DFASimulatorOracle<>(dfa);
+			// Analyzers that maintain state are created anew for every learning process
+			NamedAnalyzer analyzer = Analyzers.forName(analyzerName);
+			
+			// The compiled target is shared by all jobs, only the prefix cache is per job
+			CompiledDFAOracle oracle = new CompiledDFAOracle(compiledTarget);
+			
+			AnalyzerWrapper wrapper = new AnalyzerWrapper(analyzer, reduceCounterexamples);
 			
 			DFACounterOracle<Integer> counter = new DFACounterOracle<>(oracle, "");
 			
 			DFACacheOracle<Integer> cache = DFACaches.createTreeCache(dfa.getInputAlphabet(), counter);
 			
-			DTLearnerDFA<Integer> learner = new DTLearnerDFA<>(dfa.getInputAlphabet(), cache, wrapper, true, true);
+			CounterexampleGenerator<Integer> ceGenerator = new CounterexampleGenerator<>(ceGeneratorPrototype);
+			
+			DTLearnerDFA<Integer> learner = new NotifyingDTLearnerDFA<>(dfa.getInputAlphabet(), cache, wrapper, true, true,
+					ceGenerator);
 			
 			learner.startLearning();
 			
 			try {
 				DefaultQuery<Integer, Boolean> ceQuery;
-				while((ceQuery = generateCounterexample(learner.getHypothesisModel(), ceLength, random)) != null) {
+				while((ceQuery = ceGenerator.generateCounterexample(random, learner.getHypothesisModel(), ceLength)) != null) {
 					learner.refineHypothesis(ceQuery);
 				}
 			}
@@ -101,56 +127,79 @@ public class Experiment {
 			//System.err.println("Execution " + analyzer.getName() + "#" + id + " for CE length " + ceLength + " finished, "
 			//		+ "required " + wrapper.getTotalQueries() + " queries, average suffix length: " + wrapper.getAverageSuffixLength());
 			
-			synchronized(writer) {
-				writer.write(String.format("%4d\t%8d\t%12d\t%3.4f\n", ceLength, wrapper.getTotalQueries(), counter.getCount(), wrapper.getAverageSuffixLength()));
-				writer.flush();
-			}
+			writer.write(ceLength, repeat, wrapper.getTotalQueries(), counter.getCount(), wrapper.getAverageSuffixLength(),
+					wrapper.getTotalQuerySymbols());
+			aggregator.add(analyzer.getName(), ceLength, wrapper.getTotalQueries(), counter.getCount(), wrapper.getAverageSuffixLength(),
+					wrapper.getTotalQuerySymbols());
 			
 			return null;
-		}	
+		}
 	}
 	
-	public Experiment(File outputDir, Random random, int numStates, int alphabetSize, boolean reduceCounterexamples) {
-		this.dfa = createDFA(random, numStates, alphabetSize);
+	public Experiment(File outputDir, long seed, int instance, ResultAggregator aggregator, int numStates, int alphabetSize, boolean reduceCounterexamples, boolean commonRandomNumbers, String[] analyzerNames) {
+		this.dfa = createDFA(new Random(ExperimentSeeds.instanceSeed(seed, instance)), numStates, alphabetSize);
+		this.compiledTarget = new CompiledDFAOracle(dfa);
+		this.ceGeneratorPrototype = new CounterexampleGenerator<>(dfa);
 		this.outputDir = outputDir;
-		this.random = random;
+		this.seed = seed;
+		this.instance = instance;
+		this.aggregator = aggregator;
+		this.commonRandomNumbers = commonRandomNumbers;
+		this.analyzerNames = analyzerNames.clone();
 		this.reduceCounterexamples = reduceCounterexamples;
 	}
 	
 	public void run(int minCeLength, int maxCeLength, int ceLengthStep, int repeatCount) throws InterruptedException, IOException {
-		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		ForkJoinPool executor = new ForkJoinPool(numThreads);
 		
 		outputDir.mkdirs();
 		
-		List<BufferedWriter> writers = new ArrayList<>();
+		List<String> analyzers = Arrays.asList(analyzerNames);
+		List<ResultWriter> writers = new ArrayList<>();
+		List<boolean[][]> completed = new ArrayList<>();
+		List<Job> jobs = new ArrayList<>();
 		try {
-			for(NamedAnalyzer analyzer : Analyzers.values()) {
-				String name = analyzer.getName();
-				File outputFile = new File(outputDir, name + ".dat");
-				BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile));
-				writers.add(writer);
+			for(String name : analyzers) {
+				File outputFile = new File(outputDir, name + ".bin");
 				
+				// Jobs whose results are already contained in the result file (from
+				// a previous, interrupted run) are skipped
+				completed.add(recoverResults(outputFile, name, minCeLength, maxCeLength, ceLengthStep, repeatCount));
 				
-				for(int ceLength = minCeLength; ceLength <= maxCeLength; ceLength += ceLengthStep) {
-					for(int i = 0; i < repeatCount; i++) {
-						// Create per-job random number generator, derived from the main random number generator
-						// Note that the seeds of these are deterministic
-						Random jobRandom = new Random(random.nextLong());
-						
-						Job job
-							= new Job(analyzer, ceLength, jobRandom, writer);
-						
-						executor.submit(job);
+				writers.add(new ResultWriter(outputFile, true, RESULT_BLOCK_RECORDS));
+			}
+			
+			for(int ceLength = minCeLength; ceLength <= maxCeLength; ceLength += ceLengthStep) {
+				int lengthIdx = (ceLength - minCeLength) / ceLengthStep;
+				for(int i = 0; i < repeatCount; i++) {
+					for(int j = 0; j < analyzers.size(); j++) {
+						if(completed.get(j)[lengthIdx][i]) {
+							continue;
+						}
+						// Create per-job random number generator seed. The seed only
+						// depends on the identification of the job. With common random
+						// numbers, all analyzers use the same seed, and hence receive the
+						// same counterexamples as long as their hypotheses agree
+						long jobSeed = commonRandomNumbers ? ExperimentSeeds.jobSeed(seed, instance, ceLength, i)
+								: ExperimentSeeds.jobSeed(seed, instance, analyzers.get(j), ceLength, i);
+						jobs.add(new Job(analyzers.get(j), writers.get(j), ceLength, i, jobSeed));
 					}
 				}
 			}
 			
+			// Submit the longest jobs first, such that the remaining (short) jobs
+			// can be balanced across all threads at the end. Note that the random
+			// seeds do not depend on the order of execution.
+			Collections.sort(jobs, LONGEST_FIRST);
+			for(Job job : jobs) {
+				executor.submit(job);
+			}
 		
 			executor.shutdown();
 			executor.awaitTermination(100, TimeUnit.DAYS);
 		}
 		finally {
-			for(Writer w : writers) {
+			for(ResultWriter w : writers) {
 				try {
 					w.close();
 				}
@@ -162,6 +211,41 @@ public class Experiment {
 	}
 	
 	
+	/**
+	 * Reads the results from a previous run that are stored in the given result file,
+	 * and adds them to the aggregated results. An incomplete block at the end of the
+	 * file is discarded.
+	 * 
+	 * @return an array indicating for every counterexample length (index) and repetition
+	 * whether the respective job has completed
+	 */
+	private boolean[][] recoverResults(File resultFile, final String analyzerName,
+			final int minCeLength, final int maxCeLength, final int ceLengthStep, final int repeatCount) throws IOException {
+		final boolean[][] completed = new boolean[(maxCeLength - minCeLength) / ceLengthStep + 1][repeatCount];
+		final int[] numRecovered = new int[1];
+		long discarded = ResultReader.recover(resultFile, new ResultReader.RecordHandler() {
+			@Override
+			public void handle(int ceLength, int repeat, long numCeQueries, long mqCount, double suffixLength,
+					long numCeQuerySymbols) {
+				if(ceLength < minCeLength || ceLength > maxCeLength || (ceLength - minCeLength) % ceLengthStep != 0
+						|| repeat < 0 || repeat >= repeatCount) {
+					return;
+				}
+				int lengthIdx = (ceLength - minCeLength) / ceLengthStep;
+				if(!completed[lengthIdx][repeat]) {
+					completed[lengthIdx][repeat] = true;
+					aggregator.add(analyzerName, ceLength, numCeQueries, mqCount, suffixLength, numCeQuerySymbols);
+					numRecovered[0]++;
+				}
+			}
+		});
+		if(numRecovered[0] > 0 || discarded > 0) {
+			System.out.println("Resuming " + analyzerName + ": " + numRecovered[0] + " completed jobs, "
+					+ discarded + " bytes of incomplete results discarded");
+		}
+		return completed;
+	}
+	
 	private static CompactDFA<Integer> createDFA(Random random, int numStates, int alphabetSize) {
 		Alphabet<Integer> alphabet = Alphabets.integers(0, alphabetSize - 1);
 		
@@ -175,29 +259,4 @@ public class Experiment {
 		return dfa;
 	}
 	
-	private static <I> DefaultQuery<I,Boolean>
-	generateCounterexample(Random random, CompactDFA<I> target, DFA<?,I> hypothesis, int ceLength) {
-		Alphabet<I> alphabet = target.getInputAlphabet();
-		
-		if(Automata.findSeparatingWord(target, hypothesis, alphabet) == null) {
-			return null;
-		}
-		
-		Word<I> word;
-		
-		do {
-			WordBuilder<I> wb = new WordBuilder<>();
-			for(int i = 0; i < ceLength; i++) {
-				wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
-			}
-			word = wb.toWord();
-		} while(target.accepts(word) == hypothesis.accepts(word));
-		
-		return new DefaultQuery<>(word, target.computeOutput(word));
-	}
-	
-	private DefaultQuery<Integer,Boolean>
-	generateCounterexample(DFA<?,Integer> hypothesis, int ceLength, Random random) {
-		return generateCounterexample(random, dfa, hypothesis, ceLength);
-	}
 }
@@ -4,12 +4,22 @@
 package de.learnlib.abstractcounterexamples.experiments.icgi2014;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
-import java.util.Random;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
+import de.learnlib.abstractcounterexamples.analyzers.NamedAnalyzer;
 
 public class ExperimentMain {
 	
+	private static final String SEED_FILE = "seed";
+	
 	private static int getIntEnv(String str, int defValue) {
 		String val = System.getenv(str);
 		
@@ -38,6 +48,23 @@ public class ExperimentMain {
 		return defValue;
 	}
 	
+	private static String[] getListEnv(String str, String[] defValue) {
+		String val = System.getenv(str);
+		
+		if(val != null) {
+			return val.trim().split("\\s*,\\s*");
+		}
+		return defValue;
+	}
+	
+	private static String[] getNames(NamedAnalyzer[] analyzers) {
+		String[] names = new String[analyzers.length];
+		for(int i = 0; i < analyzers.length; i++) {
+			names[i] = analyzers[i].getName();
+		}
+		return names;
+	}
+	
 	private static boolean getBoolEnv(String str, boolean defValue) {
 		String val = System.getenv(str);
 		
@@ -69,6 +96,10 @@ public class ExperimentMain {
 	
 	private boolean reduceCounterexamples = true;
 	
+	private boolean commonRandomNumbers = false;
+	
+	private String[] analyzerNames = getNames(Analyzers.values());
+	
 	public ExperimentMain() {
 		minCeLength = getIntEnv("MIN_CE_LENGTH", minCeLength);
 		maxCeLength = getIntEnv("MAX_CE_LENGTH", maxCeLength);
@@ -90,9 +121,84 @@ public class ExperimentMain {
 		seed = getLongEnv("RANDOM_SEED", System.nanoTime());
 		
 		reduceCounterexamples = getBoolEnv("REDUCE_COUNTEREXAMPLES", reduceCounterexamples);
+		commonRandomNumbers = getBoolEnv("COMMON_RANDOM_NUMBERS", commonRandomNumbers);
+		analyzerNames = getListEnv("ANALYZERS", analyzerNames);
+	}
+	
+	/**
+	 * Determines the random seed to use. If the results directory already contains
+	 * results of a previous (interrupted) run, the seed of this run is used, such that
+	 * it can be resumed. Otherwise, the seed is stored in the results directory.
+	 */
+	private long resolveSeed(File rootDir) throws IOException {
+		File seedFile = new File(rootDir, SEED_FILE);
+		if(seedFile.exists()) {
+			String content = new String(Files.readAllBytes(seedFile.toPath()), StandardCharsets.US_ASCII);
+			long storedSeed = Long.parseLong(content.trim());
+			if(System.getenv("RANDOM_SEED") != null && storedSeed != seed) {
+				throw new IOException("Results in " + rootDir + " were created with RANDOM_SEED = " + storedSeed
+						+ ", cannot resume with RANDOM_SEED = " + seed);
+			}
+			return storedSeed;
+		}
+		rootDir.mkdirs();
+		Files.write(seedFile.toPath(), (seed + "\n").getBytes(StandardCharsets.US_ASCII));
+		return seed;
+	}
+	
+	/**
+	 * Retrieves all settings that affect the results, except for the random seed.
+	 * An interrupted experiment may only be resumed with the same settings (see
+	 * {@link ConfigurationFile}).
+	 */
+	private Map<String,String> getConfiguration() {
+		StringBuilder analyzers = new StringBuilder();
+		for(String name : analyzerNames) {
+			if(analyzers.length() > 0) {
+				analyzers.append(',');
+			}
+			analyzers.append(name);
+		}
+		
+		Map<String,String> config = new LinkedHashMap<>();
+		config.put("LEARNER", "DT");
+		config.put("MIN_CE_LENGTH", String.valueOf(minCeLength));
+		config.put("MAX_CE_LENGTH", String.valueOf(maxCeLength));
+		config.put("CE_LENGTH_STEP", String.valueOf(ceLengthStep));
+		config.put("NUM_INSTANCES", String.valueOf(numInstances));
+		config.put("REPEAT_COUNT", String.valueOf(repeatCount));
+		config.put("NUM_STATES", String.valueOf(numStates));
+		config.put("ALPHABET_SIZE", String.valueOf(alphabetSize));
+		config.put("REDUCE_COUNTEREXAMPLES", String.valueOf(reduceCounterexamples));
+		config.put("COMMON_RANDOM_NUMBERS", String.valueOf(commonRandomNumbers));
+		config.put("ANALYZERS", analyzers.toString());
+		return config;
 	}
 	
 	public void run() {
+		// Fail early on unknown analyzer names
+		try {
+			for(String name : analyzerNames) {
+				Analyzers.forName(name);
+			}
+		}
+		catch(IllegalArgumentException ex) {
+			System.err.println(ex.getMessage() + ", available analyzers: " + Arrays.toString(Analyzers.names()));
+			return;
+		}
+		
+		File rootDir = new File("results/" + id);
+		try {
+			boolean resumed = new File(rootDir, SEED_FILE).exists();
+			seed = resolveSeed(rootDir);
+			ConfigurationFile.check(rootDir, getConfiguration(), resumed);
+		}
+		catch(IOException ex) {
+			ex.printStackTrace();
+			System.err.println("Could not determine random seed and configuration.");
+			return;
+		}
+		
 		System.out.println("Starting experiment with ID '" + id + "' using the following configuration:");
 		
 		System.out.println("==========================================");
@@ -109,19 +215,22 @@ public class ExperimentMain {
 		System.out.println("ALPHABET_SIZE = " + alphabetSize);
 		System.out.println();
 		System.out.println("REDUCE_COUNTEREXAMPLES = " + reduceCounterexamples);
+		System.out.println("COMMON_RANDOM_NUMBERS = " + commonRandomNumbers);
+		System.out.println("ANALYZERS = " + Arrays.toString(analyzerNames));
 		System.out.println("RANDOM_SEED = " + seed);
 		
 		System.out.println("==========================================");
 		
-		File rootDir = new File("results/" + id);
 		System.out.println("Storing results in directory " + rootDir.getAbsolutePath());
 		
-		Random random = new Random(seed);
+		// Results are aggregated across all instances
+		ResultAggregator aggregator = new ResultAggregator();
 		
 		for(int i = 0; i < numInstances; i++) {
 			File instDir = new File(rootDir, String.format("instance-%02d", i));
 			System.out.println("Running experiment for instance #" + i + ". This may take some time ...");
-			Experiment experiment = new Experiment(instDir, random, numStates, alphabetSize, reduceCounterexamples);
+			Experiment experiment = new Experiment(instDir, seed, i, aggregator, numStates, alphabetSize, reduceCounterexamples, commonRandomNumbers,
+					analyzerNames);
 			
 			try {
 				experiment.run(minCeLength, maxCeLength, ceLengthStep, repeatCount);
@@ -132,6 +241,15 @@ public class ExperimentMain {
 				System.err.println("Experiment failed.");
 			}
 		}
+		
+		try {
+			aggregator.write(rootDir);
+			System.out.println("Aggregated results written to " + rootDir.getAbsolutePath());
+		}
+		catch(IOException ex) {
+			ex.printStackTrace();
+			System.err.println("Writing aggregated results failed.");
+		}
 	}
 	
 	
@@ -0,0 +1,81 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+/**
+ * Derivation of random seeds for experiment instances and jobs. The seeds only
+ * depend on the main random seed and the identification of the instance or job,
+ * but not on the order in which instances or jobs are created or executed. Hence,
+ * an interrupted experiment can be resumed, yielding the same results as an
+ * uninterrupted one.
+ */
+public class ExperimentSeeds {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Derives the seed for an experiment instance, which determines the target DFA.
+	 *
+	 * @param seed the main random seed
+	 * @param instance the index of the instance
+	 * @return the seed for the instance
+	 */
+	public static long instanceSeed(long seed, int instance) {
+		return mix(mix(seed) + instance);
+	}
+
+	/**
+	 * Derives the seed for a single job.
+	 *
+	 * @param seed the main random seed
+	 * @param instance the index of the instance
+	 * @param analyzerName the name of the analyzer
+	 * @param ceLength the counterexample length
+	 * @param repeat the index of the repetition
+	 * @return the seed for the job
+	 */
+	public static long jobSeed(long seed, int instance, String analyzerName, int ceLength, int repeat) {
+		long h = instanceSeed(seed, instance);
+		h = mix(h + analyzerName.hashCode());
+		h = mix(h + ceLength);
+		h = mix(h + repeat);
+		return h;
+	}
+
+	/**
+	 * Derives the seed for a job that is shared by all analyzers, i.e., for
+	 * comparing the analyzers using common random numbers.
+	 *
+	 * @param seed the main random seed
+	 * @param instance the index of the instance
+	 * @param ceLength the counterexample length
+	 * @param repeat the index of the repetition
+	 * @return the seed for the job
+	 */
+	public static long jobSeed(long seed, int instance, int ceLength, int repeat) {
+		long h = instanceSeed(seed, instance);
+		h = mix(h + ceLength);
+		h = mix(h + repeat);
+		return h;
+	}
+
+	/*
+	 * Mixing function of the SplitMix64 generator, which maps similar inputs to
+	 * statistically independent outputs.
+	 */
+	private static long mix(long z) {
+		z += GOLDEN_GAMMA;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/*
+	 * Constructor.
+	 */
+	private ExperimentSeeds() {
+		throw new AssertionError("Class should not be instantiated");
+	}
+
+}
@@ -0,0 +1,80 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import net.automatalib.words.Alphabet;
+import de.learnlib.abstractcounterexamples.algorithms.kv.IntKearnsVaziraniDFA.HypothesisListener;
+import de.learnlib.algorithms.discriminationtree.dfa.DTLearnerDFA;
+import de.learnlib.algorithms.discriminationtree.hypothesis.HState;
+import de.learnlib.algorithms.discriminationtree.hypothesis.HTransition;
+import de.learnlib.api.MembershipOracle;
+import de.learnlib.counterexamples.LocalSuffixFinder;
+import de.learnlib.oracles.DefaultQuery;
+
+/**
+ * A {@link DTLearnerDFA} that notifies a {@link HypothesisListener} about all changes of
+ * its hypothesis. States are identified by their ids (which coincide with the state ids
+ * of the hypothesis model), symbols by their index in the alphabet.
+ * <p>
+ * Transitions are reported whenever the learner (re-)computes their target. States
+ * are reported once the learner has finished updating the hypothesis, as their
+ * acceptance is not known before.
+ *
+ * @param <I> input symbol type
+ */
+class NotifyingDTLearnerDFA<I> extends DTLearnerDFA<I> {
+
+	private final Alphabet<I> alphabet;
+	private final HypothesisListener listener;
+	private int numReportedStates;
+
+	public NotifyingDTLearnerDFA(Alphabet<I> alphabet, MembershipOracle<I, Boolean> oracle,
+			LocalSuffixFinder<? super I, ? super Boolean> suffixFinder,
+			boolean repeatedCounterexampleEvaluation, boolean epsilonRoot,
+			HypothesisListener listener) {
+		super(alphabet, oracle, suffixFinder, repeatedCounterexampleEvaluation, epsilonRoot);
+		this.alphabet = alphabet;
+		this.listener = listener;
+	}
+
+	@Override
+	public void startLearning() {
+		super.startLearning();
+		reportNewStates();
+	}
+
+	@Override
+	public boolean refineHypothesis(DefaultQuery<I, Boolean> ceQuery) {
+		boolean refined = super.refineHypothesis(ceQuery);
+		reportNewStates();
+		return refined;
+	}
+
+	@Override
+	protected HState<I, Boolean, Boolean, Void> createState(HTransition<I, Boolean, Boolean, Void> transition) {
+		HState<I, Boolean, Boolean, Void> state = super.createState(transition);
+		reportTransition(transition);
+		return state;
+	}
+
+	@Override
+	protected void updateTransition(HTransition<I, Boolean, Boolean, Void> transition) {
+		super.updateTransition(transition);
+		reportTransition(transition);
+	}
+
+	private void reportTransition(HTransition<I, Boolean, Boolean, Void> transition) {
+		listener.transitionSet(transition.getSource().getId(), alphabet.getSymbolIndex(transition.getSymbol()),
+				transition.currentTarget().getId());
+	}
+
+	private void reportNewStates() {
+		int numStates = hypothesis.size();
+		for(int id = numReportedStates; id < numStates; id++) {
+			listener.stateAdded(id, hypothesis.getState(id).getProperty().booleanValue());
+		}
+		numReportedStates = numStates;
+	}
+
+}
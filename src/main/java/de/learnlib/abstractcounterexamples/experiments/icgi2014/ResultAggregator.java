@@ -0,0 +1,126 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Aggregates experiment results online, i.e., computes the mean and the (population)
+ * standard deviation of each result column for every analyzer and counterexample
+ * length, without storing the individual results. The means and standard deviations
+ * are computed using Welford's algorithm, hence the memory consumption does not depend
+ * on the number of results.
+ * <p>
+ * This class is thread-safe.
+ */
+public class ResultAggregator {
+
+	/**
+	 * Number of result columns: the number of queries for counterexample analysis,
+	 * the total number of membership queries, the average suffix length, and the
+	 * number of symbols in the queries for counterexample analysis.
+	 */
+	public static final int NUM_COLUMNS = 4;
+
+	private static final String AGG_SUFFIX = ".agg";
+
+	private static final class Accumulator {
+		private long count = 0L;
+		private final double[] means = new double[NUM_COLUMNS];
+		private final double[] m2s = new double[NUM_COLUMNS];
+
+		public synchronized void add(double[] values) {
+			count++;
+			for(int i = 0; i < NUM_COLUMNS; i++) {
+				double delta = values[i] - means[i];
+				means[i] += delta / count;
+				m2s[i] += delta * (values[i] - means[i]);
+			}
+		}
+
+		public synchronized void write(int ceLength, Writer writer) throws IOException {
+			StringBuilder sb = new StringBuilder();
+			sb.append(ceLength);
+			for(int i = 0; i < NUM_COLUMNS; i++) {
+				sb.append('\t').append(means[i]);
+				sb.append('\t').append(Math.sqrt(m2s[i] / count));
+			}
+			sb.append('\n');
+			writer.write(sb.toString());
+		}
+	}
+
+	private final ConcurrentMap<String,ConcurrentSkipListMap<Integer,Accumulator>> accumulators
+		= new ConcurrentHashMap<>();
+
+	/**
+	 * Adds the result of a single experiment run.
+	 *
+	 * @param analyzerName the name of the analyzer
+	 * @param ceLength the counterexample length
+	 * @param numCeQueries the number of queries for counterexample analysis
+	 * @param mqCount the total number of membership queries
+	 * @param suffixLength the average suffix length
+	 * @param numCeQuerySymbols the number of symbols in the queries for counterexample
+	 * analysis
+	 */
+	public void add(String analyzerName, int ceLength, long numCeQueries, long mqCount, double suffixLength,
+			long numCeQuerySymbols) {
+		getAccumulator(analyzerName, ceLength).add(new double[]{numCeQueries, mqCount, suffixLength, numCeQuerySymbols});
+	}
+
+	private Accumulator getAccumulator(String analyzerName, int ceLength) {
+		ConcurrentSkipListMap<Integer,Accumulator> byLength = accumulators.get(analyzerName);
+		if(byLength == null) {
+			byLength = new ConcurrentSkipListMap<>();
+			ConcurrentSkipListMap<Integer,Accumulator> existing = accumulators.putIfAbsent(analyzerName, byLength);
+			if(existing != null) {
+				byLength = existing;
+			}
+		}
+
+		Accumulator acc = byLength.get(ceLength);
+		if(acc == null) {
+			acc = new Accumulator();
+			Accumulator existing = byLength.putIfAbsent(ceLength, acc);
+			if(existing != null) {
+				acc = existing;
+			}
+		}
+		return acc;
+	}
+
+	/**
+	 * Writes the aggregated results to the given directory. For every analyzer, a file
+	 * <code>&lt;name&gt;.agg</code> is created, which contains a line for every
+	 * counterexample length (in ascending order). Every line consists of the
+	 * counterexample length, followed by the mean and the standard deviation of every
+	 * result column. This is the same format as produced by <code>aggregate.py</code>.
+	 *
+	 * @param outputDir the directory to write the files to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(File outputDir) throws IOException {
+		outputDir.mkdirs();
+		for(Map.Entry<String,ConcurrentSkipListMap<Integer,Accumulator>> e : accumulators.entrySet()) {
+			File outputFile = new File(outputDir, e.getKey() + AGG_SUFFIX);
+			try(Writer writer = new BufferedWriter(new FileWriter(outputFile))) {
+				SortedMap<Integer,Accumulator> byLength = e.getValue();
+				for(Map.Entry<Integer,Accumulator> e2 : byLength.entrySet()) {
+					e2.getValue().write(e2.getKey(), writer);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Converts binary result files (see {@link ResultWriter}) to the text format
+ * expected by the evaluation scripts. The text file of a result file
+ * <code>X.bin</code> is stored as <code>X.dat</code> in the same directory.
+ * <p>
+ * The arguments are files or directories; directories are searched recursively for
+ * result files.
+ */
+public class ResultConverter {
+
+	private static final String BIN_SUFFIX = ".bin";
+	private static final String DAT_SUFFIX = ".dat";
+
+	/**
+	 * Converts a single binary result file to the text format.
+	 *
+	 * @param binFile the binary result file
+	 * @param datFile the text file to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void convert(File binFile, File datFile) throws IOException {
+		try(final Writer writer = new BufferedWriter(new FileWriter(datFile))) {
+			ResultReader.read(binFile, new ResultReader.RecordHandler() {
+				@Override
+				public void handle(int ceLength, int repeat, long numCeQueries, long mqCount, double suffixLength,
+						long numCeQuerySymbols) throws IOException {
+					writer.write(String.format("%4d\t%8d\t%12d\t%3.4f\t%12d\n", ceLength, numCeQueries, mqCount,
+							suffixLength, numCeQuerySymbols));
+				}
+			});
+		}
+	}
+
+	private static void convertAll(File file) throws IOException {
+		if(file.isDirectory()) {
+			File[] children = file.listFiles();
+			if(children != null) {
+				for(File child : children) {
+					convertAll(child);
+				}
+			}
+		}
+		else if(file.getName().endsWith(BIN_SUFFIX)) {
+			String name = file.getName();
+			String datName = name.substring(0, name.length() - BIN_SUFFIX.length()) + DAT_SUFFIX;
+			convert(file, new File(file.getParentFile(), datName));
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if(args.length == 0) {
+			System.err.println("Usage: ResultConverter <file or directory> ...");
+			System.exit(1);
+		}
+
+		for(String arg : args) {
+			convertAll(new File(arg));
+		}
+	}
+
+}
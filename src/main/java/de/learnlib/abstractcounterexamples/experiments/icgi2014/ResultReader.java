@@ -0,0 +1,153 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads result files written by a {@link ResultWriter}.
+ */
+public class ResultReader {
+
+	/**
+	 * Receives the records of a result file.
+	 */
+	public static interface RecordHandler {
+		/**
+		 * Handles a single record.
+		 *
+		 * @param ceLength the counterexample length
+		 * @param repeat the index of the repetition
+		 * @param numCeQueries the number of queries for counterexample analysis
+		 * @param mqCount the total number of membership queries
+		 * @param suffixLength the average suffix length
+		 * @param numCeQuerySymbols the number of symbols in the queries for
+		 * counterexample analysis
+		 * @throws IOException if an I/O error occurs while handling the record
+		 */
+		public void handle(int ceLength, int repeat, long numCeQueries, long mqCount, double suffixLength,
+				long numCeQuerySymbols) throws IOException;
+	}
+
+	/**
+	 * Reads all records from a result file, in the order they are stored in.
+	 *
+	 * @param file the result file
+	 * @param handler the handler to pass the records to
+	 * @throws IOException if the file could not be read, or is corrupt
+	 */
+	public static void read(File file, RecordHandler handler) throws IOException {
+		long validLength = readBlocks(file, handler);
+		if(validLength != file.length()) {
+			throw new IOException("Corrupt result file " + file + ": invalid or incomplete block at offset "
+					+ validLength);
+		}
+	}
+
+	/**
+	 * Reads all records from a possibly incomplete result file, e.g., one that was
+	 * being written when an experiment was interrupted. Reading stops at the first
+	 * block that is incomplete or corrupt, and the file is truncated before this
+	 * block, such that new blocks can be appended to it.
+	 *
+	 * @param file the result file. If it does not exist, this method does nothing
+	 * @param handler the handler to pass the records of all valid blocks to
+	 * @return the number of bytes that were discarded
+	 * @throws IOException if the file could not be read or truncated
+	 */
+	public static long recover(File file, RecordHandler handler) throws IOException {
+		if(!file.exists()) {
+			return 0L;
+		}
+		long validLength = readBlocks(file, handler);
+		long discarded = file.length() - validLength;
+		if(discarded > 0L) {
+			try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+				channel.truncate(validLength);
+			}
+		}
+		return discarded;
+	}
+
+	/*
+	 * Reads all valid blocks from a result file, and returns the length of the
+	 * (valid) prefix of the file formed by these blocks.
+	 */
+	private static long readBlocks(File file, RecordHandler handler) throws IOException {
+		long fileLength = file.length();
+		long validLength = 0L;
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			while(true) {
+				int n;
+				int[] ceLengths;
+				int[] repeats;
+				long[] ceQueries;
+				long[] mqCounts;
+				double[] suffixLengths;
+				long[] ceQuerySymbols;
+				try {
+					if(in.readInt() != ResultWriter.BLOCK_MAGIC) {
+						break;
+					}
+					n = in.readInt();
+					// A corrupt header must not cause huge allocations: a block cannot
+					// contain more records than the remainder of the file
+					long maxRecords = (fileLength - validLength - ResultWriter.HEADER_SIZE) / ResultWriter.RECORD_SIZE;
+					if(n <= 0 || n > maxRecords) {
+						break;
+					}
+					ceLengths = new int[n];
+					repeats = new int[n];
+					ceQueries = new long[n];
+					mqCounts = new long[n];
+					suffixLengths = new double[n];
+					ceQuerySymbols = new long[n];
+					for(int i = 0; i < n; i++) {
+						ceLengths[i] = in.readInt();
+					}
+					for(int i = 0; i < n; i++) {
+						repeats[i] = in.readInt();
+					}
+					for(int i = 0; i < n; i++) {
+						ceQueries[i] = in.readLong();
+					}
+					for(int i = 0; i < n; i++) {
+						mqCounts[i] = in.readLong();
+					}
+					for(int i = 0; i < n; i++) {
+						suffixLengths[i] = in.readDouble();
+					}
+					for(int i = 0; i < n; i++) {
+						ceQuerySymbols[i] = in.readLong();
+					}
+				}
+				catch(EOFException ex) {
+					// End of file, or incomplete block
+					break;
+				}
+				for(int i = 0; i < n; i++) {
+					handler.handle(ceLengths[i], repeats[i], ceQueries[i], mqCounts[i], suffixLengths[i],
+							ceQuerySymbols[i]);
+				}
+				validLength += ResultWriter.HEADER_SIZE + (long)n * ResultWriter.RECORD_SIZE;
+			}
+		}
+		return validLength;
+	}
+
+	/*
+	 * Constructor.
+	 */
+	private ResultReader() {
+		throw new AssertionError("Class should not be instantiated");
+	}
+
+}
@@ -0,0 +1,201 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the results of experiment runs to a binary file. This writer may be used by
+ * several threads concurrently, without any locking: every thread collects its results
+ * in a buffer of its own, which is written to the file as a whole block once it is full.
+ * Each thread reserves a region of the file for its block atomically, and then writes
+ * it using a positional write.
+ * <p>
+ * The file consists of a sequence of blocks. Every block starts with a header consisting
+ * of the magic number {@link #BLOCK_MAGIC} and the number of records <code>n</code> in
+ * this block (both ints), followed by the columns of the records:
+ * <ul>
+ * <li><code>n</code> ints: the counterexample lengths,</li>
+ * <li><code>n</code> ints: the indices of the repetitions,</li>
+ * <li><code>n</code> longs: the numbers of queries for counterexample analysis,</li>
+ * <li><code>n</code> longs: the total numbers of membership queries,</li>
+ * <li><code>n</code> doubles: the average suffix lengths,</li>
+ * <li><code>n</code> longs: the numbers of symbols in the queries for counterexample
+ * analysis.</li>
+ * </ul>
+ * All values are stored in big-endian byte order. See {@link ResultReader} for reading
+ * such files, and {@link ResultConverter} for converting them to the text format used
+ * by the evaluation scripts.
+ * <p>
+ * As every record identifies the job it originates from, a result file also serves as
+ * a journal of completed jobs when resuming an interrupted experiment (see
+ * {@link ResultReader#recover(File, ResultReader.RecordHandler)}).
+ */
+public class ResultWriter implements Closeable {
+
+	/**
+	 * Magic number at the start of each block.
+	 */
+	public static final int BLOCK_MAGIC = 0x41435832; // "ACX2"
+
+	/**
+	 * Size of the block header, in bytes.
+	 */
+	public static final int HEADER_SIZE = 2 * 4;
+
+	/**
+	 * Size of a single record, in bytes.
+	 */
+	public static final int RECORD_SIZE = 4 + 4 + 8 + 8 + 8 + 8;
+
+	private static final int DEFAULT_BLOCK_RECORDS = 256;
+
+	private final class Buffer {
+		private final int[] ceLengths = new int[blockRecords];
+		private final int[] repeats = new int[blockRecords];
+		private final long[] ceQueries = new long[blockRecords];
+		private final long[] mqCounts = new long[blockRecords];
+		private final double[] suffixLengths = new double[blockRecords];
+		private final long[] ceQuerySymbols = new long[blockRecords];
+		private int size = 0;
+
+		public void add(int ceLength, int repeat, long numCeQueries, long mqCount, double suffixLength,
+				long numCeQuerySymbols) throws IOException {
+			ceLengths[size] = ceLength;
+			repeats[size] = repeat;
+			ceQueries[size] = numCeQueries;
+			mqCounts[size] = mqCount;
+			suffixLengths[size] = suffixLength;
+			ceQuerySymbols[size] = numCeQuerySymbols;
+			if(++size == blockRecords) {
+				flush();
+			}
+		}
+
+		public void flush() throws IOException {
+			if(size == 0) {
+				return;
+			}
+			ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + size * RECORD_SIZE);
+			buf.putInt(BLOCK_MAGIC);
+			buf.putInt(size);
+			for(int i = 0; i < size; i++) {
+				buf.putInt(ceLengths[i]);
+			}
+			for(int i = 0; i < size; i++) {
+				buf.putInt(repeats[i]);
+			}
+			for(int i = 0; i < size; i++) {
+				buf.putLong(ceQueries[i]);
+			}
+			for(int i = 0; i < size; i++) {
+				buf.putLong(mqCounts[i]);
+			}
+			for(int i = 0; i < size; i++) {
+				buf.putDouble(suffixLengths[i]);
+			}
+			for(int i = 0; i < size; i++) {
+				buf.putLong(ceQuerySymbols[i]);
+			}
+			buf.flip();
+			size = 0;
+			writeBlock(buf);
+		}
+	}
+
+	private final FileChannel channel;
+	private final int blockRecords;
+	private final AtomicLong position;
+	private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<Buffer> threadBuffer = new ThreadLocal<Buffer>() {
+		@Override
+		protected Buffer initialValue() {
+			Buffer buffer = new Buffer();
+			buffers.add(buffer);
+			return buffer;
+		}
+	};
+
+	/**
+	 * Constructor. Creates a writer with a default number of records per block.
+	 * @param file the file to write to
+	 * @param append if {@code true}, blocks are appended to an existing file, otherwise
+	 * an existing file is overwritten
+	 * @throws IOException if the file could not be opened
+	 */
+	public ResultWriter(File file, boolean append) throws IOException {
+		this(file, append, DEFAULT_BLOCK_RECORDS);
+	}
+
+	/**
+	 * Constructor.
+	 * @param file the file to write to
+	 * @param append if {@code true}, blocks are appended to an existing file, otherwise
+	 * an existing file is overwritten
+	 * @param blockRecords the (maximum) number of records per block
+	 * @throws IOException if the file could not be opened
+	 */
+	public ResultWriter(File file, boolean append, int blockRecords) throws IOException {
+		if(append) {
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+		}
+		else {
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+		this.blockRecords = blockRecords;
+		this.position = new AtomicLong(channel.size());
+	}
+
+	/**
+	 * Adds the result of a single experiment run. The result is written to the file
+	 * once the buffer of the calling thread is full, or when this writer is closed.
+	 *
+	 * @param ceLength the counterexample length
+	 * @param repeat the index of the repetition
+	 * @param numCeQueries the number of queries for counterexample analysis
+	 * @param mqCount the total number of membership queries
+	 * @param suffixLength the average suffix length
+	 * @param numCeQuerySymbols the number of symbols in the queries for counterexample
+	 * analysis
+	 * @throws IOException if writing to the file failed
+	 */
+	public void write(int ceLength, int repeat, long numCeQueries, long mqCount, double suffixLength,
+			long numCeQuerySymbols) throws IOException {
+		threadBuffer.get().add(ceLength, repeat, numCeQueries, mqCount, suffixLength, numCeQuerySymbols);
+	}
+
+	private void writeBlock(ByteBuffer block) throws IOException {
+		long pos = position.getAndAdd(block.remaining());
+		while(block.hasRemaining()) {
+			pos += channel.write(block, pos);
+		}
+	}
+
+	/**
+	 * Writes the contents of all buffers to the file, and closes it. This method
+	 * must not be called while other threads are still writing.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			for(Buffer buffer : buffers) {
+				buffer.flush();
+			}
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+}
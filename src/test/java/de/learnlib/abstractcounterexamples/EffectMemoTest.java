@@ -0,0 +1,215 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the claim/publish protocol of the {@link EffectMemo} implementations, and the
+ * memoization of effect values in a thread-safe {@link AbstractCounterexample}.
+ */
+public class EffectMemoTest {
+
+	private static final int LENGTH = 100;
+
+	@DataProvider(name = "memos")
+	public Object[][] createMemos() {
+		return new Object[][] {
+				{ new SparseEffectMemo(LENGTH) },
+				{ new ConcurrentEffectMemo(LENGTH) }
+		};
+	}
+
+	@Test(dataProvider = "memos")
+	public void testBoundaries(EffectMemo memo) {
+		Assert.assertEquals(memo.claim(0), 0);
+		Assert.assertEquals(memo.claim(LENGTH), 1);
+		Assert.assertEquals(memo.await(0), 0);
+		Assert.assertEquals(memo.await(LENGTH), 1);
+
+		memo.invalidate(0);
+		memo.invalidate(LENGTH);
+		Assert.assertEquals(memo.claim(0), 0);
+		Assert.assertEquals(memo.claim(LENGTH), 1);
+		Assert.assertEquals(memo.getKnownEffects(), new int[] { 0, 2 * LENGTH + 1 });
+	}
+
+	@Test(dataProvider = "memos")
+	public void testClaimPublish(EffectMemo memo) {
+		Assert.assertEquals(memo.claim(17), EffectMemo.UNKNOWN);
+		Assert.assertEquals(memo.claim(17), EffectMemo.IN_FLIGHT);
+		memo.publish(17, 1);
+		Assert.assertEquals(memo.claim(17), 1);
+		Assert.assertEquals(memo.await(17), 1);
+
+		Assert.assertEquals(memo.claim(42), EffectMemo.UNKNOWN);
+		memo.publish(42, 0);
+		Assert.assertEquals(memo.claim(42), 0);
+
+		// Unrelated indices are unaffected
+		Assert.assertEquals(memo.claim(18), EffectMemo.UNKNOWN);
+	}
+
+	@Test(dataProvider = "memos")
+	public void testRelease(EffectMemo memo) {
+		Assert.assertEquals(memo.claim(5), EffectMemo.UNKNOWN);
+		memo.release(5);
+		Assert.assertEquals(memo.await(5), EffectMemo.UNKNOWN);
+		Assert.assertEquals(memo.claim(5), EffectMemo.UNKNOWN);
+		memo.publish(5, 0);
+		Assert.assertEquals(memo.claim(5), 0);
+	}
+
+	@Test(dataProvider = "memos")
+	public void testInvalidate(EffectMemo memo) {
+		memo.claim(10);
+		memo.publish(10, 0);
+		memo.claim(20);
+		memo.publish(20, 1);
+
+		memo.invalidate(10);
+		Assert.assertEquals(memo.claim(10), EffectMemo.UNKNOWN);
+		Assert.assertEquals(memo.claim(20), 1);
+
+		// Invalidating an index that is being computed leaves it in flight
+		memo.invalidate(10);
+		Assert.assertEquals(memo.claim(10), EffectMemo.IN_FLIGHT);
+
+		// Invalidating an unknown index has no effect
+		memo.invalidate(30);
+		Assert.assertEquals(memo.claim(30), EffectMemo.UNKNOWN);
+	}
+
+	@Test(dataProvider = "memos")
+	public void testKnownEffects(EffectMemo memo) {
+		int[] indices = { 99, 3, 50, 16, 17, 1, 64 };
+		for(int index : indices) {
+			memo.claim(index);
+			memo.publish(index, index % 2);
+		}
+		// Neither claimed nor released indices are known
+		memo.claim(70);
+		memo.claim(80);
+		memo.release(80);
+
+		int[] expected = { 0, 2 * 1 + 1, 2 * 3 + 1, 2 * 16, 2 * 17 + 1, 2 * 50, 2 * 64, 2 * 99 + 1, 2 * LENGTH + 1 };
+		Assert.assertEquals(memo.getKnownEffects(), expected);
+
+		memo.invalidate(50);
+		memo.invalidate(99);
+		expected = new int[] { 0, 2 * 1 + 1, 2 * 3 + 1, 2 * 16, 2 * 17 + 1, 2 * 64, 2 * LENGTH + 1 };
+		Assert.assertEquals(memo.getKnownEffects(), expected);
+	}
+
+	@Test(dataProvider = "memos")
+	public void testNumQueries(EffectMemo memo) {
+		Assert.assertEquals(memo.getNumQueries(), 0);
+		memo.addQueries(1);
+		memo.addQueries(5);
+		Assert.assertEquals(memo.getNumQueries(), 6);
+	}
+
+	@Test
+	public void testSparseAwaitInFlight() {
+		SparseEffectMemo memo = new SparseEffectMemo(LENGTH);
+		memo.claim(7);
+		try {
+			memo.await(7);
+			Assert.fail("Waiting for an in-flight index must fail without concurrency");
+		}
+		catch(IllegalStateException expected) {
+		}
+	}
+
+	@Test(timeOut = 10000L)
+	public void testConcurrentAwait() throws Exception {
+		final ConcurrentEffectMemo memo = new ConcurrentEffectMemo(LENGTH);
+		Assert.assertEquals(memo.claim(33), EffectMemo.UNKNOWN);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Integer> waiter = executor.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() {
+					return memo.await(33);
+				}
+			});
+			Thread.sleep(50L);
+			Assert.assertFalse(waiter.isDone());
+			memo.publish(33, 1);
+			Assert.assertEquals(waiter.get().intValue(), 1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 30000L)
+	public void testConcurrentComputation() throws Exception {
+		final int m = 1000;
+		final int numThreads = 8;
+		final AtomicIntegerArray computed = new AtomicIntegerArray(m + 1);
+		final AbstractCounterexample acex = new AbstractCounterexample(m, true) {
+			@Override
+			protected int doComputeEffect(int index) {
+				computed.incrementAndGet(index);
+				Thread.yield();
+				return (index >= m / 3) ? 1 : 0;
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			List<Future<int[]>> futures = new ArrayList<>();
+			for(int t = 0; t < numThreads; t++) {
+				final int offset = t;
+				futures.add(executor.submit(new Callable<int[]>() {
+					@Override
+					public int[] call() {
+						int[] effects = new int[m + 1];
+						for(int i = 0; i <= m; i++) {
+							// Alternate single and batched requests in different orders
+							int index = (i + offset * 97) % (m + 1);
+							if(i % 2 == 0) {
+								effects[index] = acex.testEffect(index);
+							}
+							else {
+								effects[index] = acex.testEffects(index, index)[1];
+							}
+						}
+						return effects;
+					}
+				}));
+			}
+			for(Future<int[]> f : futures) {
+				int[] effects = f.get();
+				for(int i = 0; i <= m; i++) {
+					Assert.assertEquals(effects[i], (i >= m / 3 || i == m) ? 1 : 0, "Effect for index " + i);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		Assert.assertEquals(computed.get(0), 0);
+		Assert.assertEquals(computed.get(m), 0);
+		for(int i = 1; i < m; i++) {
+			Assert.assertEquals(computed.get(i), 1, "Number of computations for index " + i);
+		}
+		Assert.assertEquals(acex.getNumQueries(), m - 1);
+		Assert.assertEquals(acex.getKnownEffects().length, m + 1);
+	}
+
+}
@@ -0,0 +1,177 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.algorithms.kv;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
+import de.learnlib.abstractcounterexamples.experiments.icgi2014.CompiledDFAOracle;
+import de.learnlib.oracles.DefaultQuery;
+import de.learnlib.oracles.MQUtil;
+import de.learnlib.oracles.SimulatorOracle.DFASimulatorOracle;
+
+/**
+ * Tests that the {@link IntCacheOracle} answers queries correctly, and only passes
+ * queries with unknown answers to its delegate.
+ */
+public class IntCacheOracleTest {
+
+	private static final int ALPHABET_SIZE = 3;
+
+	/**
+	 * Records the words of all queries passed to it.
+	 */
+	private static final class RecordingOracle implements IntMembershipOracle {
+		private final IntMembershipOracle delegate;
+		private final List<List<Integer>> words = new ArrayList<>();
+
+		public RecordingOracle(IntMembershipOracle delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void processQueries(int numQueries, int[][] prefixes, int[] prefixLengths, int[][] suffixes,
+				boolean[] answers) {
+			for(int i = 0; i < numQueries; i++) {
+				words.add(toList(prefixes[i], prefixLengths[i], suffixes[i]));
+			}
+			delegate.processQueries(numQueries, prefixes, prefixLengths, suffixes, answers);
+		}
+	}
+
+	private static List<Integer> toList(int[] prefix, int prefixLength, int[] suffix) {
+		List<Integer> word = new ArrayList<>();
+		for(int i = 0; i < prefixLength; i++) {
+			word.add(prefix[i]);
+		}
+		for(int sym : suffix) {
+			word.add(sym);
+		}
+		return word;
+	}
+
+	private static CompactDFA<Integer> createTarget(long seed) {
+		return RandomAutomata.randomDFA(new Random(seed), 20, Alphabets.integers(0, ALPHABET_SIZE - 1));
+	}
+
+	private static int[] randomWord(Random random, int length) {
+		int[] word = new int[length];
+		for(int i = 0; i < length; i++) {
+			word[i] = random.nextInt(ALPHABET_SIZE);
+		}
+		return word;
+	}
+
+	@Test
+	public void testAnswers() {
+		CompactDFA<Integer> target = createTarget(0L);
+		CompiledDFAOracle reference = new CompiledDFAOracle(target);
+		RecordingOracle recorder = new RecordingOracle(new CompiledDFAOracle(target));
+		IntCacheOracle cache = new IntCacheOracle(ALPHABET_SIZE, recorder);
+
+		Random random = new Random(0L);
+		Set<List<Integer>> distinct = new HashSet<>();
+		int batchSize = 10;
+		int[][] prefixes = new int[batchSize][];
+		int[] prefixLengths = new int[batchSize];
+		int[][] suffixes = new int[batchSize][];
+		boolean[] answers = new boolean[batchSize];
+		boolean[] expected = new boolean[batchSize];
+		for(int round = 0; round < 200; round++) {
+			for(int i = 0; i < batchSize; i++) {
+				// Short words, such that many of them are repeated, with varying splits
+				// into prefix and suffix
+				int[] prefix = randomWord(random, random.nextInt(4));
+				prefixes[i] = prefix;
+				prefixLengths[i] = random.nextInt(prefix.length + 1);
+				suffixes[i] = randomWord(random, random.nextInt(3));
+			}
+			int numBefore = recorder.words.size();
+			Set<List<Integer>> known = new HashSet<>(distinct);
+			cache.processQueries(batchSize, prefixes, prefixLengths, suffixes, answers);
+			reference.processQueries(batchSize, prefixes, prefixLengths, suffixes, expected);
+			Assert.assertEquals(answers, expected);
+
+			// Exactly the queries whose words were not known before the batch are
+			// passed on
+			List<List<Integer>> misses = new ArrayList<>();
+			for(int i = 0; i < batchSize; i++) {
+				List<Integer> word = toList(prefixes[i], prefixLengths[i], suffixes[i]);
+				if(!known.contains(word)) {
+					misses.add(word);
+				}
+				distinct.add(word);
+			}
+			Assert.assertEquals(recorder.words.subList(numBefore, recorder.words.size()), misses);
+		}
+		Assert.assertEquals(cache.size(), distinct.size());
+	}
+
+	@Test
+	public void testPassesArraysUnchanged() {
+		final int[] prefix = { 0, 1, 2, 0 };
+		final int[] suffix = { 1 };
+		IntCacheOracle cache = new IntCacheOracle(ALPHABET_SIZE, new IntMembershipOracle() {
+			@Override
+			public void processQueries(int numQueries, int[][] prefixes, int[] prefixLengths, int[][] suffixes,
+					boolean[] answers) {
+				for(int i = 0; i < numQueries; i++) {
+					Assert.assertSame(prefixes[i], prefix);
+					Assert.assertSame(suffixes[i], suffix);
+					answers[i] = (prefixLengths[i] % 2 == 0);
+				}
+			}
+		});
+		boolean[] answers = new boolean[3];
+		cache.processQueries(3, new int[][] { prefix, prefix, prefix }, new int[] { 1, 2, 1 },
+				new int[][] { suffix, suffix, suffix }, answers);
+		Assert.assertEquals(answers, new boolean[] { false, true, false });
+		Assert.assertEquals(cache.size(), 2);
+	}
+
+	@Test
+	public void testLearning() {
+		CompactDFA<Integer> target = createTarget(1L);
+		IntCounterOracle counter = new IntCounterOracle(new CompiledDFAOracle(target));
+		RecordingOracle recorder = new RecordingOracle(counter);
+		IntCacheOracle cache = new IntCacheOracle(ALPHABET_SIZE, recorder);
+		KearnsVaziraniDFA<Integer> learner = new KearnsVaziraniDFA<>(target.getInputAlphabet(), cache,
+				Analyzers.LINEAR_ASC, true);
+		learner.startLearning();
+
+		DFASimulatorOracle<Integer> ceOracle = new DFASimulatorOracle<>(target);
+		Random random = new Random(1L);
+		for(int i = 0; i < 1000; i++) {
+			int[] symbols = randomWord(random, 30);
+			Integer[] boxed = new Integer[symbols.length];
+			for(int j = 0; j < symbols.length; j++) {
+				boxed[j] = symbols[j];
+			}
+			Word<Integer> word = Word.fromSymbols(boxed);
+			DefaultQuery<Integer,Boolean> ce = MQUtil.query(ceOracle, word);
+			if(!ce.getOutput().equals(learner.getHypothesisModel().accepts(word))) {
+				learner.refineHypothesis(ce);
+			}
+		}
+
+		// Every word is passed to the target oracle (and counted) at most once
+		Assert.assertEquals(new HashSet<>(recorder.words).size(), recorder.words.size());
+		Assert.assertEquals(counter.getCount(), recorder.words.size());
+		Assert.assertEquals(cache.size(), recorder.words.size());
+	}
+
+}
@@ -0,0 +1,143 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.algorithms.kv;
+
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
+import de.learnlib.abstractcounterexamples.experiments.icgi2014.CompiledDFAOracle;
+import de.learnlib.api.MembershipOracle;
+import de.learnlib.oracles.CounterOracle.DFACounterOracle;
+import de.learnlib.oracles.DefaultQuery;
+import de.learnlib.oracles.MQUtil;
+import de.learnlib.oracles.SimulatorOracle.DFASimulatorOracle;
+
+/**
+ * Tests that the {@link KearnsVaziraniDFA} learner (which is backed by
+ * {@link IntKearnsVaziraniDFA}) in its default configuration poses exactly the same
+ * number of queries as the original, word-based implementation. The expected values
+ * were obtained by running the same scenarios with the original implementation.
+ */
+public class KearnsVaziraniDFATest {
+
+	private static final int NUM_STATES = 50;
+	private static final int ALPHABET_SIZE = 5;
+	private static final int SUFFIX_LENGTH = 40;
+
+	// seed, analyzer, repeated counterexample evaluation, number of states,
+	// counterexample analysis queries, total membership queries
+	private static final Object[][] EXPECTED = {
+		{ 0, "LinearAsc", false, 50, 642L, 2188L },
+		{ 0, "LinearAsc", true, 50, 1501L, 2992L },
+		{ 0, "LinearDesc", false, 50, 790L, 2364L },
+		{ 0, "LinearDesc", true, 50, 1115L, 2659L },
+		{ 0, "RivestSchapire", false, 50, 562L, 2088L },
+		{ 0, "RivestSchapire", true, 50, 695L, 2184L },
+		{ 0, "Exponential", false, 50, 514L, 2074L },
+		{ 0, "Exponential", true, 50, 741L, 2284L },
+		{ 0, "Exponential-Rev", false, 50, 570L, 2103L },
+		{ 0, "Exponential-Rev", true, 50, 854L, 2342L },
+		{ 0, "Partition", false, 50, 524L, 2044L },
+		{ 0, "Partition", true, 50, 695L, 2166L },
+		{ 0, "Partition-Rev", false, 50, 452L, 2005L },
+		{ 0, "Partition-Rev", true, 50, 774L, 2273L },
+		{ 1, "LinearAsc", false, 50, 592L, 2104L },
+		{ 1, "LinearAsc", true, 50, 1354L, 2832L },
+		{ 1, "LinearDesc", false, 50, 666L, 2155L },
+		{ 1, "LinearDesc", true, 50, 1046L, 2544L },
+		{ 1, "RivestSchapire", false, 50, 514L, 2008L },
+		{ 1, "RivestSchapire", true, 50, 656L, 2179L },
+		{ 1, "Exponential", false, 50, 551L, 2055L },
+		{ 1, "Exponential", true, 50, 838L, 2316L },
+		{ 1, "Exponential-Rev", false, 50, 497L, 2009L },
+		{ 1, "Exponential-Rev", true, 50, 982L, 2483L },
+		{ 1, "Partition", false, 50, 523L, 2026L },
+		{ 1, "Partition", true, 50, 701L, 2233L },
+		{ 1, "Partition-Rev", false, 50, 461L, 1952L },
+		{ 1, "Partition-Rev", true, 50, 547L, 2057L },
+	};
+
+	@DataProvider(name = "scenarios")
+	public Object[][] createScenarios() {
+		return EXPECTED;
+	}
+
+	@Test(dataProvider = "scenarios")
+	public void testQueryCounts(int seed, String analyzer, boolean repeated, int numStates, long ceQueries,
+			long mqCount) {
+		CompactDFA<Integer> target = createTarget(seed);
+		Alphabet<Integer> alphabet = target.getInputAlphabet();
+		DFACounterOracle<Integer> counter = new DFACounterOracle<>(new DFASimulatorOracle<>(target), "");
+
+		KearnsVaziraniDFA<Integer> learner = new KearnsVaziraniDFA<>(alphabet, counter,
+				Analyzers.forName(analyzer), repeated);
+		learn(learner, target, counter, seed);
+
+		Assert.assertEquals(learner.getHypothesisModel().size(), numStates);
+		Assert.assertEquals(learner.getTotalCEQueries(), ceQueries);
+		Assert.assertEquals(counter.getCount(), mqCount);
+	}
+
+	@Test(dataProvider = "scenarios")
+	public void testQueryCountsIntOracle(int seed, String analyzer, boolean repeated, int numStates,
+			long ceQueries, long mqCount) {
+		CompactDFA<Integer> target = createTarget(seed);
+		Alphabet<Integer> alphabet = target.getInputAlphabet();
+		IntCounterOracle counter = new IntCounterOracle(new CompiledDFAOracle(target));
+
+		KearnsVaziraniDFA<Integer> learner = new KearnsVaziraniDFA<>(alphabet, counter,
+				Analyzers.forName(analyzer), repeated);
+		// Counterexamples are not posed to the counting oracle
+		int numCounterexamples = learn(learner, target, new DFASimulatorOracle<>(target), seed);
+
+		Assert.assertEquals(learner.getHypothesisModel().size(), numStates);
+		Assert.assertEquals(learner.getTotalCEQueries(), ceQueries);
+		Assert.assertEquals(counter.getCount() + numCounterexamples, mqCount);
+	}
+
+	private static CompactDFA<Integer> createTarget(int seed) {
+		return RandomAutomata.randomDFA(new Random(seed), NUM_STATES, Alphabets.integers(0, ALPHABET_SIZE - 1));
+	}
+
+	/*
+	 * Learns the target, using separating words extended by a random suffix as
+	 * counterexamples (if they are still counterexamples).
+	 */
+	private static int learn(KearnsVaziraniDFA<Integer> learner, CompactDFA<Integer> target,
+			MembershipOracle<Integer,Boolean> ceOracle, int seed) {
+		Alphabet<Integer> alphabet = target.getInputAlphabet();
+		Random random = new Random(seed);
+		learner.startLearning();
+
+		int numCounterexamples = 0;
+		Word<Integer> sepWord;
+		while((sepWord = Automata.findSeparatingWord(target, learner.getHypothesisModel(), alphabet)) != null) {
+			WordBuilder<Integer> wb = new WordBuilder<>(sepWord);
+			for(int i = 0; i < SUFFIX_LENGTH; i++) {
+				wb.append(random.nextInt(ALPHABET_SIZE));
+			}
+			Word<Integer> ceWord = wb.toWord();
+			if(target.accepts(ceWord) == learner.getHypothesisModel().accepts(ceWord)) {
+				ceWord = sepWord;
+			}
+			DefaultQuery<Integer,Boolean> ce = MQUtil.query(ceOracle, ceWord);
+			Assert.assertTrue(learner.refineHypothesis(ce));
+			numCounterexamples++;
+		}
+		return numCounterexamples;
+	}
+
+}
@@ -0,0 +1,130 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.analyzers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import de.learnlib.abstractcounterexamples.AbstractCounterexample;
+
+/**
+ * Tests that every analyzer finds a breakpoint, i.e., an index <code>i</code> with
+ * <code>e(i) = 0</code> and <code>e(i+1) = 1</code>, on abstract counterexamples
+ * whose effect values are not monotone.
+ */
+public class AnalyzersTest {
+
+	private static final int NUM_COUNTEREXAMPLES = 500;
+	private static final int MAX_LENGTH = 300;
+
+	/**
+	 * Abstract counterexample with a fixed effect vector.
+	 */
+	private static final class ArrayAbstractCounterexample extends AbstractCounterexample {
+		private final int[] effects;
+		private final long[] costs;
+
+		public ArrayAbstractCounterexample(int[] effects, long[] costs) {
+			super(effects.length - 1);
+			this.effects = effects;
+			this.costs = costs;
+		}
+
+		@Override
+		protected int doComputeEffect(int index) {
+			return effects[index];
+		}
+
+		@Override
+		public long estimateCost(int index) {
+			return costs[index];
+		}
+	}
+
+	@DataProvider(name = "analyzers")
+	public Object[][] createAnalyzers() {
+		List<String> names = new ArrayList<>(Arrays.asList(Analyzers.names()));
+		names.add("KAry-2");
+		names.add("KAry-3");
+		Object[][] result = new Object[names.size()][];
+		for(int i = 0; i < result.length; i++) {
+			result[i] = new Object[] { names.get(i) };
+		}
+		return result;
+	}
+
+	@Test(dataProvider = "analyzers")
+	public void testValidBreakpoint(String name) {
+		// A single (possibly stateful) analyzer instance is used for all
+		// counterexamples, as in a learning process
+		NamedAnalyzer analyzer = Analyzers.forName(name);
+		Assert.assertEquals(analyzer.getName(), name);
+
+		Random random = new Random(name.hashCode());
+		for(int n = 0; n < NUM_COUNTEREXAMPLES; n++) {
+			int m = 1 + random.nextInt(MAX_LENGTH);
+			int[] effects = randomEffects(random, m, n % 4);
+			long[] costs = new long[m + 1];
+			for(int i = 0; i <= m; i++) {
+				costs[i] = 1L + random.nextInt(100);
+			}
+
+			ArrayAbstractCounterexample acex = new ArrayAbstractCounterexample(effects, costs);
+			int idx = analyzer.analyzeAbstractCounterexample(acex);
+			Assert.assertTrue(idx >= 0 && idx < m, name + " returned index " + idx + " for length " + m);
+			Assert.assertEquals(effects[idx], 0, name + ": effect at " + idx + " in " + Arrays.toString(effects));
+			Assert.assertEquals(effects[idx + 1], 1, name + ": effect at " + (idx + 1) + " in "
+					+ Arrays.toString(effects));
+			Assert.assertTrue(acex.getNumQueries() <= m - 1);
+		}
+	}
+
+	@Test
+	public void testUnknownName() {
+		for(String name : new String[] { "Unknown", "KAry-", "KAry-x" }) {
+			try {
+				Analyzers.forName(name);
+				Assert.fail("Expected an exception for " + name);
+			}
+			catch(IllegalArgumentException expected) {
+			}
+		}
+	}
+
+	/*
+	 * Creates a random effect vector of length m + 1 with e(0) = 0 and e(m) = 1.
+	 * Depending on the mode, the inner effect values are uniformly random, mostly 0,
+	 * mostly 1, or monotone with random noise.
+	 */
+	private static int[] randomEffects(Random random, int m, int mode) {
+		int[] effects = new int[m + 1];
+		int threshold = random.nextInt(m + 1);
+		for(int i = 1; i < m; i++) {
+			switch(mode) {
+			case 0:
+				effects[i] = random.nextInt(2);
+				break;
+			case 1:
+				effects[i] = (random.nextInt(10) == 0) ? 1 : 0;
+				break;
+			case 2:
+				effects[i] = (random.nextInt(10) == 0) ? 0 : 1;
+				break;
+			default:
+				int monotone = (i >= threshold) ? 1 : 0;
+				effects[i] = (random.nextInt(20) == 0) ? 1 - monotone : monotone;
+				break;
+			}
+		}
+		effects[m] = 1;
+		return effects;
+	}
+
+}
@@ -0,0 +1,221 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.learnlib.abstractcounterexamples.algorithms.kv.KearnsVaziraniDFA;
+import de.learnlib.abstractcounterexamples.analyzers.Analyzers;
+import de.learnlib.oracles.DefaultQuery;
+import de.learnlib.oracles.SimulatorOracle.DFASimulatorOracle;
+
+/**
+ * Tests that the {@link CounterexampleGenerator} samples counterexamples uniformly
+ * among all words of the requested length, and that learning with the generated
+ * counterexamples terminates.
+ */
+public class CounterexampleGeneratorTest {
+
+	// Quantile of the standard normal distribution for a significance level of 0.001
+	private static final double Z_CRITICAL = 3.09;
+
+	private static final Alphabet<Integer> BINARY = Alphabets.integers(0, 1);
+
+	/*
+	 * Creates a DFA over {0,1} accepting all words with at least the given number of
+	 * 1s.
+	 */
+	private static CompactDFA<Integer> createCountingDFA(int minOnes) {
+		CompactDFA<Integer> dfa = new CompactDFA<>(BINARY);
+		dfa.addInitialState(minOnes == 0);
+		for(int s = 1; s <= minOnes; s++) {
+			dfa.addState(s == minOnes);
+		}
+		for(int s = 0; s <= minOnes; s++) {
+			dfa.setTransition(s, BINARY.getSymbolIndex(0), s);
+			dfa.setTransition(s, BINARY.getSymbolIndex(1), Math.min(s + 1, minOnes));
+		}
+		return dfa;
+	}
+
+	/*
+	 * Creates a random (not necessarily minimal) DFA over {0,1}, whose initial state
+	 * is state 0, as in the hypotheses reported to the generator.
+	 */
+	private static CompactDFA<Integer> createRandomHypothesis(Random random, int numStates) {
+		CompactDFA<Integer> dfa = new CompactDFA<>(BINARY);
+		dfa.addInitialState(random.nextBoolean());
+		for(int s = 1; s < numStates; s++) {
+			dfa.addState(random.nextBoolean());
+		}
+		for(int s = 0; s < numStates; s++) {
+			for(int i = 0; i < BINARY.size(); i++) {
+				dfa.setTransition(s, i, random.nextInt(numStates));
+			}
+		}
+		return dfa;
+	}
+
+	/*
+	 * Reports all states and transitions of a hypothesis to a generator.
+	 */
+	private static void report(CounterexampleGenerator<Integer> generator, CompactDFA<Integer> hypothesis) {
+		int alphabetSize = hypothesis.getInputAlphabet().size();
+		for(int s = 0; s < hypothesis.size(); s++) {
+			generator.stateAdded(s, hypothesis.isAccepting(s));
+		}
+		for(int s = 0; s < hypothesis.size(); s++) {
+			for(int i = 0; i < alphabetSize; i++) {
+				generator.transitionSet(s, i, hypothesis.getIntSuccessor(s, i));
+			}
+		}
+	}
+
+	/*
+	 * Enumerates all words of the given length on which target and hypothesis disagree,
+	 * and assigns them consecutive indices.
+	 */
+	private static Map<Word<Integer>,Integer> enumerateCounterexamples(CompactDFA<Integer> target,
+			CompactDFA<Integer> hypothesis, int length) {
+		Alphabet<Integer> alphabet = target.getInputAlphabet();
+		int alphabetSize = alphabet.size();
+		Map<Word<Integer>,Integer> counterexamples = new HashMap<>();
+		int[] symbols = new int[length];
+		while(true) {
+			WordBuilder<Integer> wb = new WordBuilder<>(length);
+			for(int i = 0; i < length; i++) {
+				wb.append(alphabet.getSymbol(symbols[i]));
+			}
+			Word<Integer> word = wb.toWord();
+			if(target.accepts(word) != hypothesis.accepts(word)) {
+				counterexamples.put(word, counterexamples.size());
+			}
+
+			int pos = length - 1;
+			while(pos >= 0 && ++symbols[pos] == alphabetSize) {
+				symbols[pos--] = 0;
+			}
+			if(pos < 0) {
+				return counterexamples;
+			}
+		}
+	}
+
+	private static void checkUniformity(CompactDFA<Integer> target, CompactDFA<Integer> hypothesis, int length,
+			long seed) {
+		Map<Word<Integer>,Integer> counterexamples = enumerateCounterexamples(target, hypothesis, length);
+		int k = counterexamples.size();
+		Assert.assertTrue(k > 1, "Too few counterexamples of length " + length);
+
+		CounterexampleGenerator<Integer> generator = new CounterexampleGenerator<>(target);
+		report(generator, hypothesis);
+
+		int samplesPerWord = 200;
+		int numSamples = samplesPerWord * k;
+		int[] counts = new int[k];
+		Random random = new Random(seed);
+		for(int i = 0; i < numSamples; i++) {
+			DefaultQuery<Integer,Boolean> ce = generator.generateCounterexample(random, hypothesis, length);
+			Integer idx = counterexamples.get(ce.getInput());
+			Assert.assertNotNull(idx, ce.getInput() + " is not a counterexample of length " + length);
+			Assert.assertEquals(ce.getOutput(), Boolean.valueOf(target.accepts(ce.getInput())));
+			counts[idx]++;
+		}
+
+		double chiSquare = 0.0;
+		for(int count : counts) {
+			double diff = count - samplesPerWord;
+			chiSquare += diff * diff / samplesPerWord;
+		}
+		// Wilson-Hilferty approximation of the critical value of the chi-square
+		// distribution with k-1 degrees of freedom
+		double df = k - 1;
+		double c = 2.0 / (9.0 * df);
+		double critical = df * Math.pow(1.0 - c + Z_CRITICAL * Math.sqrt(c), 3.0);
+		Assert.assertTrue(chiSquare < critical, "Chi-square statistic " + chiSquare + " exceeds critical value "
+				+ critical + " (" + k + " counterexamples)");
+	}
+
+	@Test
+	public void testUniformityRareCounterexamples() {
+		// Only 11 out of 1024 words are counterexamples, hence they are mostly
+		// constructed on the product instead of being found by random sampling
+		CompactDFA<Integer> target = createCountingDFA(9);
+		CompactDFA<Integer> hypothesis = createCountingDFA(11);
+		checkUniformity(target, hypothesis, 10, 1L);
+	}
+
+	@Test
+	public void testUniformityRandomDFAs() {
+		for(int seed = 0; seed < 3; seed++) {
+			Random random = new Random(seed);
+			CompactDFA<Integer> target = RandomAutomata.randomDFA(random, 8, BINARY);
+			CompactDFA<Integer> hypothesis = createRandomHypothesis(random, 4);
+			checkUniformity(target, hypothesis, 8, seed);
+		}
+	}
+
+	@Test
+	public void testEquivalentHypothesis() {
+		CompactDFA<Integer> target = createCountingDFA(3);
+		CounterexampleGenerator<Integer> generator = new CounterexampleGenerator<>(target);
+		report(generator, createCountingDFA(3));
+		Assert.assertNull(generator.generateCounterexample(new Random(0), createCountingDFA(3), 20));
+	}
+
+	@Test
+	public void testNoCounterexampleOfLength() {
+		// All counterexamples have at least 9 symbols, a shortest one is returned
+		CompactDFA<Integer> target = createCountingDFA(9);
+		CompactDFA<Integer> hypothesis = createCountingDFA(10);
+		CounterexampleGenerator<Integer> generator = new CounterexampleGenerator<>(target);
+		report(generator, hypothesis);
+
+		DefaultQuery<Integer,Boolean> ce = generator.generateCounterexample(new Random(0), hypothesis, 5);
+		Assert.assertNotNull(ce);
+		Assert.assertEquals(ce.getInput().length(), 9);
+		Assert.assertTrue(target.accepts(ce.getInput()));
+		Assert.assertFalse(hypothesis.accepts(ce.getInput()));
+	}
+
+	@Test
+	public void testLearningTerminates() {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+		for(int seed = 0; seed < 5; seed++) {
+			CompactDFA<Integer> target = RandomAutomata.randomDFA(new Random(seed), 40, alphabet);
+			CounterexampleGenerator<Integer> generator = new CounterexampleGenerator<>(target);
+			KearnsVaziraniDFA<Integer> learner = new KearnsVaziraniDFA<>(alphabet,
+					new DFASimulatorOracle<>(target), Analyzers.RIVEST_SCHAPIRE, true);
+			learner.setHypothesisListener(generator);
+			learner.startLearning();
+
+			Random random = new Random(seed);
+			int length = 50;
+			int rounds = 0;
+			DefaultQuery<Integer,Boolean> ce;
+			while((ce = generator.generateCounterexample(random, learner.getHypothesisModel(), length)) != null) {
+				Assert.assertEquals(ce.getInput().length(), length);
+				Assert.assertEquals(ce.getOutput(), Boolean.valueOf(target.accepts(ce.getInput())));
+				Assert.assertNotEquals(learner.getHypothesisModel().accepts(ce.getInput()), ce.getOutput());
+				Assert.assertTrue(learner.refineHypothesis(ce));
+				Assert.assertTrue(++rounds <= target.size(), "Learning does not terminate");
+			}
+			Assert.assertNull(Automata.findSeparatingWord(target, learner.getHypothesisModel(), alphabet));
+		}
+	}
+
+}
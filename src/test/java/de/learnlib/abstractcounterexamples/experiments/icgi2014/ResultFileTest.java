@@ -0,0 +1,257 @@
+/* 
+ * Copyright (C) 2026 learnlib-abstract-counterexamples contributors
+ */
+package de.learnlib.abstractcounterexamples.experiments.icgi2014;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Round trip tests for {@link ResultWriter} and {@link ResultReader}, including the
+ * recovery of incomplete or corrupt result files.
+ */
+public class ResultFileTest {
+
+	private static final int BLOCK_RECORDS = 16;
+	private static final int BLOCK_SIZE = ResultWriter.HEADER_SIZE + BLOCK_RECORDS * ResultWriter.RECORD_SIZE;
+
+	/**
+	 * Collects the records passed to it. All values of a record are derived from its
+	 * counterexample length (the record id) and its repetition index (the writer id).
+	 */
+	private static final class Collector implements ResultReader.RecordHandler {
+		private final List<List<Integer>> ids = new ArrayList<>();
+		private int size;
+
+		@Override
+		public void handle(int ceLength, int repeat, long numCeQueries, long mqCount, double suffixLength,
+				long numCeQuerySymbols) {
+			Assert.assertEquals(numCeQueries, 3L * ceLength + repeat);
+			Assert.assertEquals(mqCount, 7L * ceLength);
+			Assert.assertEquals(suffixLength, ceLength / 2.0);
+			Assert.assertEquals(numCeQuerySymbols, (1L << 40) + ceLength);
+			while(ids.size() <= repeat) {
+				ids.add(new ArrayList<Integer>());
+			}
+			ids.get(repeat).add(ceLength);
+			size++;
+		}
+
+		public List<Integer> getIds(int writer) {
+			return (writer < ids.size()) ? ids.get(writer) : new ArrayList<Integer>();
+		}
+
+		public int size() {
+			return size;
+		}
+	}
+
+	private File file;
+
+	@BeforeMethod
+	public void setUp() throws IOException {
+		file = File.createTempFile("results", ".dat");
+	}
+
+	@AfterMethod
+	public void tearDown() {
+		file.delete();
+	}
+
+	private static void write(ResultWriter writer, int writerId, int fromId, int toId) throws IOException {
+		for(int id = fromId; id < toId; id++) {
+			writer.write(id, writerId, 3L * id + writerId, 7L * id, id / 2.0, (1L << 40) + id);
+		}
+	}
+
+	private static List<Integer> range(int fromId, int toId) {
+		List<Integer> ids = new ArrayList<>();
+		for(int id = fromId; id < toId; id++) {
+			ids.add(id);
+		}
+		return ids;
+	}
+
+	private static void assertIds(Collector c, int writerId, int fromId, int toId) {
+		Assert.assertEquals(c.getIds(writerId), range(fromId, toId));
+	}
+
+	private void truncate(long length) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(length);
+		}
+	}
+
+	private void append(ByteBuffer buf) throws IOException {
+		buf.flip();
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.APPEND)) {
+			while(buf.hasRemaining()) {
+				channel.write(buf);
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		try(ResultWriter writer = new ResultWriter(file, false, BLOCK_RECORDS)) {
+			write(writer, 0, 0, 3 * BLOCK_RECORDS + 5);
+		}
+		Assert.assertEquals(file.length(), 3L * BLOCK_SIZE + ResultWriter.HEADER_SIZE + 5 * ResultWriter.RECORD_SIZE);
+
+		Collector c = new Collector();
+		ResultReader.read(file, c);
+		assertIds(c, 0, 0, 3 * BLOCK_RECORDS + 5);
+
+		// An empty file is valid, and an existing file is overwritten
+		new ResultWriter(file, false, BLOCK_RECORDS).close();
+		c = new Collector();
+		ResultReader.read(file, c);
+		Assert.assertEquals(c.size(), 0);
+	}
+
+	@Test(timeOut = 30000L)
+	public void testConcurrentWriters() throws Exception {
+		final int numThreads = 8;
+		final int numRecords = 1000;
+		final ResultWriter writer = new ResultWriter(file, false, BLOCK_RECORDS);
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			List<Future<Void>> futures = new ArrayList<>();
+			for(int t = 0; t < numThreads; t++) {
+				final int writerId = t;
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						write(writer, writerId, 0, numRecords);
+						return null;
+					}
+				}));
+			}
+			for(Future<Void> f : futures) {
+				f.get();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+			writer.close();
+		}
+
+		Collector c = new Collector();
+		ResultReader.read(file, c);
+		Assert.assertEquals(c.size(), numThreads * numRecords);
+		// Blocks of different threads are interleaved, but the records of each thread
+		// are stored in the order they were written in
+		for(int t = 0; t < numThreads; t++) {
+			assertIds(c, t, 0, numRecords);
+		}
+	}
+
+	@Test
+	public void testTruncatedFile() throws IOException {
+		try(ResultWriter writer = new ResultWriter(file, false, BLOCK_RECORDS)) {
+			write(writer, 0, 0, 3 * BLOCK_RECORDS);
+		}
+		// Cut off the last block in the middle of its last column
+		truncate(3L * BLOCK_SIZE - 3);
+
+		try {
+			ResultReader.read(file, new Collector());
+			Assert.fail("Reading a truncated file must fail");
+		}
+		catch(IOException expected) {
+		}
+
+		Collector c = new Collector();
+		Assert.assertEquals(ResultReader.recover(file, c), (long)BLOCK_SIZE - 3);
+		assertIds(c, 0, 0, 2 * BLOCK_RECORDS);
+		Assert.assertEquals(file.length(), 2L * BLOCK_SIZE);
+
+		// Recovering again finds nothing to discard
+		Assert.assertEquals(ResultReader.recover(file, new Collector()), 0L);
+
+		// Resume writing the discarded records, as an experiment would
+		try(ResultWriter writer = new ResultWriter(file, true, BLOCK_RECORDS)) {
+			write(writer, 0, 2 * BLOCK_RECORDS, 3 * BLOCK_RECORDS + 1);
+		}
+		c = new Collector();
+		ResultReader.read(file, c);
+		assertIds(c, 0, 0, 3 * BLOCK_RECORDS + 1);
+	}
+
+	@Test
+	public void testTruncatedHeader() throws IOException {
+		try(ResultWriter writer = new ResultWriter(file, false, BLOCK_RECORDS)) {
+			write(writer, 0, 0, 2 * BLOCK_RECORDS);
+		}
+		truncate(BLOCK_SIZE + 6);
+
+		Collector c = new Collector();
+		Assert.assertEquals(ResultReader.recover(file, c), 6L);
+		assertIds(c, 0, 0, BLOCK_RECORDS);
+		Assert.assertEquals(file.length(), (long)BLOCK_SIZE);
+	}
+
+	@Test
+	public void testCorruptHeader() throws IOException {
+		try(ResultWriter writer = new ResultWriter(file, false, BLOCK_RECORDS)) {
+			write(writer, 0, 0, BLOCK_RECORDS);
+		}
+		// A header claiming a huge number of records must neither be trusted nor cause
+		// a huge allocation
+		ByteBuffer buf = ByteBuffer.allocate(ResultWriter.HEADER_SIZE + 2 * ResultWriter.RECORD_SIZE);
+		buf.putInt(ResultWriter.BLOCK_MAGIC);
+		buf.putInt(Integer.MAX_VALUE);
+		buf.put(new byte[2 * ResultWriter.RECORD_SIZE]);
+		append(buf);
+
+		try {
+			ResultReader.read(file, new Collector());
+			Assert.fail("Reading a corrupt file must fail");
+		}
+		catch(IOException expected) {
+		}
+
+		Collector c = new Collector();
+		Assert.assertEquals(ResultReader.recover(file, c),
+				(long)ResultWriter.HEADER_SIZE + 2 * ResultWriter.RECORD_SIZE);
+		assertIds(c, 0, 0, BLOCK_RECORDS);
+
+		// Neither are negative record counts or invalid magic numbers
+		for(int[] header : new int[][] { { ResultWriter.BLOCK_MAGIC, -1 }, { ResultWriter.BLOCK_MAGIC, 0 },
+				{ 0x12345678, 1 } }) {
+			buf = ByteBuffer.allocate(ResultWriter.HEADER_SIZE + ResultWriter.RECORD_SIZE);
+			buf.putInt(header[0]);
+			buf.putInt(header[1]);
+			buf.put(new byte[ResultWriter.RECORD_SIZE]);
+			append(buf);
+
+			c = new Collector();
+			Assert.assertEquals(ResultReader.recover(file, c),
+					(long)ResultWriter.HEADER_SIZE + ResultWriter.RECORD_SIZE);
+			assertIds(c, 0, 0, BLOCK_RECORDS);
+		}
+	}
+
+	@Test
+	public void testRecoverMissingFile() throws IOException {
+		Files.delete(file.toPath());
+		Assert.assertEquals(ResultReader.recover(file, new Collector()), 0L);
+		Assert.assertFalse(file.exists());
+	}
+
+}